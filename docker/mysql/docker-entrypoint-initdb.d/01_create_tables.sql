@@ -69,6 +69,10 @@ CREATE TABLE
                    `category_id` int unsigned DEFAULT NULL,
                    PRIMARY KEY (`id`),
                    KEY `products_relation_1` (`category_id`),
+                   KEY `products_price_id_idx` (`price`, `id`),
+                   KEY `products_name_id_idx` (`name`, `id`),
+                   -- Covers price range lookups (including FindProductsByPrice) without reading the clustered index
+                   KEY `products_price_category_name_idx` (`price`, `category_id`, `name`),
                    CONSTRAINT `products_relation_1` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`)
 ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
 
@@ -78,7 +82,8 @@ CREATE TABLE
   `carts` (
     `id` binary(16) NOT NULL DEFAULT(uuid_to_bin(uuid())),
     `date_created` date NOT NULL DEFAULT(curdate()),
-    PRIMARY KEY (`id`)
+    PRIMARY KEY (`id`),
+    KEY `carts_date_created_idx` (`date_created`)
   ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
 
 
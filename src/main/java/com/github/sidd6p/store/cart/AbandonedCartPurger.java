@@ -0,0 +1,144 @@
+package com.github.sidd6p.store.cart;
+
+import com.github.sidd6p.store.dtos.CartAgeView;
+import com.github.sidd6p.store.entities.OrderStatus;
+import com.github.sidd6p.store.repositories.CartRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Deletes carts created more than {@code cart.purge.maxAge} ago, on the {@code cart.purge.cron} schedule.
+ * <p>
+ * Carts are deleted in chunks of {@code chunkSize}, each in its own short transaction (lines first, then carts),
+ * with a {@code pause} between chunks so row locks are never held for long. Carts referenced by a pending order
+ * are kept, as are carts held by the hot cart store. Deleted ids stay in the cart id filter as false positives,
+ * which only cost a lookup.
+ * <p>
+ * Metrics: {@code cart.purge.deleted} (rows, tagged by table) and {@code cart.purge.duration} (per run).
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.purge", name = "enabled", havingValue = "true")
+@Slf4j
+public class AbandonedCartPurger {
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<HotCartStore> hotCartStore;
+    private final Duration maxAge;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Counter deletedCarts;
+    private final Counter deletedItems;
+    private final Timer duration;
+
+    public AbandonedCartPurger(CartRepository cartRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectProvider<HotCartStore> hotCartStore,
+                               MeterRegistry meterRegistry,
+                               @Value("${cart.purge.maxAge:30d}") Duration maxAge,
+                               @Value("${cart.purge.chunkSize:500}") int chunkSize,
+                               @Value("${cart.purge.pause:200ms}") Duration pause) {
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotCartStore = hotCartStore;
+        this.maxAge = maxAge;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.deletedCarts = Counter.builder("cart.purge.deleted").tag("table", "carts")
+                .description("Rows deleted by the abandoned cart purge").register(meterRegistry);
+        this.deletedItems = Counter.builder("cart.purge.deleted").tag("table", "cart_items")
+                .description("Rows deleted by the abandoned cart purge").register(meterRegistry);
+        this.duration = Timer.builder("cart.purge.duration")
+                .description("Time spent by each abandoned cart purge run").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${cart.purge.cron:0 30 3 * * *}")
+    public void purgeAbandonedCarts() {
+        purge(LocalDate.now().minusDays(maxAge.toDays()));
+    }
+
+    /**
+     * Deletes every cart created before the cutoff that is not referenced by a pending order.
+     *
+     * @return the number of carts deleted
+     */
+    public long purge(LocalDate cutoff) {
+        return duration.record(() -> {
+            long carts = 0;
+            long items = 0;
+            CartAgeView last = null;
+            while (true) {
+                var chunk = nextChunk(cutoff, last);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                last = chunk.get(chunk.size() - 1);
+
+                var cartIds = chunk.stream().map(CartAgeView::getCartId).toList();
+                // Carts held by the hot store are skipped; the others cannot be loaded into it until deleted
+                var store = hotCartStore.getIfAvailable();
+                var deletable = store != null ? store.beginPurge(cartIds) : cartIds;
+                try {
+                    if (!deletable.isEmpty()) {
+                        var deleted = transactionTemplate.execute(status -> new long[]{
+                                cartRepository.deleteItemsOfAbandoned(deletable, OrderStatus.PENDING),
+                                cartRepository.deleteAbandoned(deletable, OrderStatus.PENDING)
+                        });
+                        items += deleted[0];
+                        carts += deleted[1];
+                        deletedItems.increment(deleted[0]);
+                        deletedCarts.increment(deleted[1]);
+                    }
+                } finally {
+                    if (store != null) {
+                        store.endPurge(deletable);
+                    }
+                }
+
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                if (!sleep()) {
+                    break;
+                }
+            }
+            log.info("Purged {} carts and {} cart items created before {}", carts, items, cutoff);
+            return carts;
+        });
+    }
+
+    // Read in a read-write transaction, so from the primary like the deletes that follow
+    private List<CartAgeView> nextChunk(LocalDate cutoff, CartAgeView last) {
+        return transactionTemplate.execute(status -> last == null
+                ? cartRepository.findAbandoned(cutoff, OrderStatus.PENDING, Limit.of(chunkSize))
+                : cartRepository.findAbandonedAfter(cutoff, OrderStatus.PENDING, last.getDateCreated(), last.getCartId(),
+                Limit.of(chunkSize)));
+    }
+
+    private boolean sleep() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            // Shutting down: stop after the chunk already committed
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
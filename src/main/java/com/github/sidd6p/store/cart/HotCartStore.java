@@ -0,0 +1,435 @@
+package com.github.sidd6p.store.cart;
+
+import com.github.sidd6p.store.entities.TimeOrderedUuidGenerator;
+import com.github.sidd6p.store.repositories.CartItemJdbcRepository;
+import com.github.sidd6p.store.repositories.CartRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Write-behind store for active carts, enabled with {@code cart.hotStore.enabled=true}.
+ * <p>
+ * Carts are kept in memory as product id -> quantity maps, loaded from the database on first use. Mutations
+ * only change memory and mark the cart dirty, so any number of them between two flushes cost one write.
+ * Dirty carts are written every {@code flushInterval} in batches of {@code flushBatchSize} carts per
+ * transaction, and on demand by {@link #flush(UUID)} (checkout) and on shutdown. Clean carts idle for longer
+ * than {@code idleTimeout} are dropped from memory. A batch that fails is retried one cart at a time, so a
+ * cart that cannot be written stays dirty without holding back the others; lines of products deleted in the
+ * meantime are dropped.
+ * <p>
+ * Each cart is guarded by one of {@code lockStripes} locks picked by its id; loads and writes run outside
+ * them. Flushes are serialized, so a later flush of a cart never writes an older state than an earlier one.
+ * The store runs its own transactions and should not be called from inside another one, which would hold a
+ * second connection meanwhile.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cart.hotStore", name = "enabled", havingValue = "true")
+@Slf4j
+public class HotCartStore {
+    private final CartRepository cartRepository;
+    private final CartItemJdbcRepository cartItemJdbcRepository;
+    // Own transactions, so a flush commits even when called from a transaction that later rolls back
+    private final TransactionTemplate transactionTemplate;
+    private final long idleTimeoutNanos;
+    private final int flushBatchSize;
+    private final ReentrantLock[] stripes;
+    // Bumped under a stripe's lock whenever a cart of the stripe is evicted or starts being purged
+    private final long[] stripeVersions;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Map<UUID, HotCart> carts = new ConcurrentHashMap<>();
+    // Carts being deleted by the purge, which must not be loaded meanwhile
+    private final Set<UUID> purging = ConcurrentHashMap.newKeySet();
+
+    /**
+     * A cart as seen by an operation: its quantities are a private copy that the store keeps only if the
+     * operation completes, so an operation that throws leaves the cart unchanged.
+     */
+    public record CartState(UUID id, LocalDate dateCreated, Map<Integer, Integer> quantities) {
+        public CartState snapshot() {
+            return new CartState(id, dateCreated, Collections.unmodifiableMap(new LinkedHashMap<>(quantities)));
+        }
+    }
+
+    // Guarded by the cart's stripe lock
+    private static final class HotCart {
+        private final UUID id;
+        private final LocalDate dateCreated;
+        private Map<Integer, Integer> quantities;
+        // Whether the carts row exists
+        private boolean persisted;
+        private boolean dirty;
+        private long lastAccess = System.nanoTime();
+
+        private HotCart(UUID id, LocalDate dateCreated, Map<Integer, Integer> quantities, boolean persisted) {
+            this.id = id;
+            this.dateCreated = dateCreated;
+            this.quantities = quantities;
+            this.persisted = persisted;
+        }
+    }
+
+    public HotCartStore(CartRepository cartRepository,
+                        CartItemJdbcRepository cartItemJdbcRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${cart.hotStore.idleTimeout:30m}") Duration idleTimeout,
+                        @Value("${cart.hotStore.flushBatchSize:200}") int flushBatchSize,
+                        @Value("${cart.hotStore.lockStripes:64}") int lockStripes) {
+        this.cartRepository = cartRepository;
+        this.cartItemJdbcRepository = cartItemJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.flushBatchSize = flushBatchSize;
+        this.stripes = new ReentrantLock[lockStripes];
+        this.stripeVersions = new long[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Creates an empty cart in memory; its row is inserted by the next flush.
+     */
+    public CartState create() {
+        var cart = new HotCart(TimeOrderedUuidGenerator.nextUuid(), LocalDate.now(), new LinkedHashMap<>(), false);
+        cart.dirty = true;
+        carts.put(cart.id, cart);
+        return new CartState(cart.id, cart.dateCreated, cart.quantities).snapshot();
+    }
+
+    /**
+     * A copy of the cart's current state, or empty if the cart does not exist.
+     */
+    public Optional<CartState> read(UUID cartId) {
+        return update(cartId, CartState::snapshot);
+    }
+
+    /**
+     * Applies the operation to the cart under its lock and returns its result, or empty if the cart does not
+     * exist. Changes the operation makes to the quantities are kept once it returns; the result must not
+     * expose the quantities map itself (use {@link CartState#snapshot()}).
+     */
+    public <R> Optional<R> update(UUID cartId, Function<CartState, R> operation) {
+        int stripe = stripeOf(cartId);
+        var lock = stripes[stripe];
+        lock.lock();
+        try {
+            var cart = carts.get(cartId);
+            while (cart == null) {
+                if (purging.contains(cartId)) {
+                    return Optional.empty();
+                }
+                // Loaded without the lock, which other carts share
+                long version = stripeVersions[stripe];
+                lock.unlock();
+                HotCart loaded;
+                try {
+                    loaded = load(cartId);
+                } finally {
+                    lock.lock();
+                }
+                cart = carts.get(cartId);
+                if (cart == null && stripeVersions[stripe] == version) {
+                    if (loaded == null) {
+                        return Optional.empty();
+                    }
+                    carts.put(cartId, loaded);
+                    cart = loaded;
+                }
+                // Otherwise a cart of this stripe was evicted or started being purged meanwhile, possibly this one, so
+                // the loaded state may be stale: check again
+            }
+            var working = new CartState(cart.id, cart.dateCreated, new LinkedHashMap<>(cart.quantities));
+            var result = operation.apply(working);
+            if (!working.quantities().equals(cart.quantities)) {
+                cart.quantities = working.quantities();
+                cart.dirty = true;
+            }
+            cart.lastAccess = System.nanoTime();
+            return Optional.ofNullable(result);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the cart to the database now if it has unflushed changes, e.g. before checkout reads it.
+     */
+    public void flush(UUID cartId) {
+        flushLock.lock();
+        try {
+            var snapshot = takeDirty(cartId);
+            if (snapshot != null) {
+                try {
+                    write(List.of(snapshot));
+                } catch (RuntimeException e) {
+                    failed(snapshot, e);
+                    throw e;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every dirty cart, then drops clean carts that have been idle for longer than the idle timeout.
+     */
+    @Scheduled(fixedDelayString = "${cart.hotStore.flushInterval:5s}", initialDelayString = "${cart.hotStore.flushInterval:5s}")
+    public void flushDirty() {
+        flushLock.lock();
+        try {
+            flushAll();
+            // Under the flush lock, so a cart cannot be dropped while a failed write still has to re-mark it dirty
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every dirty cart. Also runs on graceful shutdown, before the data source is closed.
+     */
+    @PreDestroy
+    public void flushAll() {
+        flushLock.lock();
+        try {
+            var batch = new ArrayList<PendingWrite>(flushBatchSize);
+            for (var cartId : carts.keySet()) {
+                var snapshot = takeDirty(cartId);
+                if (snapshot != null) {
+                    batch.add(snapshot);
+                }
+                if (batch.size() == flushBatchSize) {
+                    writeAndContinue(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeAndContinue(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Starts purging the given carts: returns those not held in memory, which the caller may delete, and refuses
+     * to load them until {@link #endPurge(Collection)}. Carts in memory may be in use and are left out, since
+     * their next flush would recreate lines of a deleted cart.
+     */
+    public List<UUID> beginPurge(Collection<UUID> cartIds) {
+        var deletable = new ArrayList<UUID>(cartIds.size());
+        for (var cartId : cartIds) {
+            int stripe = stripeOf(cartId);
+            var lock = stripes[stripe];
+            lock.lock();
+            try {
+                if (!carts.containsKey(cartId)) {
+                    purging.add(cartId);
+                    // A load already running may have read the cart before its deletion
+                    stripeVersions[stripe]++;
+                    deletable.add(cartId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return deletable;
+    }
+
+    /**
+     * Lets the carts of {@link #beginPurge(Collection)} be loaded again, once their deletion has committed or
+     * failed. Those that were deleted are then simply not found.
+     */
+    public void endPurge(Collection<UUID> cartIds) {
+        purging.removeAll(cartIds);
+    }
+
+    /**
+     * Number of carts currently held in memory.
+     */
+    public int size() {
+        return carts.size();
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (var cartId : carts.keySet()) {
+            int stripe = stripeOf(cartId);
+            var lock = stripes[stripe];
+            lock.lock();
+            try {
+                var cart = carts.get(cartId);
+                if (cart != null && !cart.dirty && now - cart.lastAccess >= idleTimeoutNanos) {
+                    carts.remove(cartId);
+                    stripeVersions[stripe]++;
+                    evicted++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle carts, {} remain in memory", evicted, carts.size());
+        }
+    }
+
+    private record PendingWrite(CartState state, boolean insert) {
+    }
+
+    // Copies a dirty cart for writing and marks it clean; a mutation after this makes it dirty again
+    private PendingWrite takeDirty(UUID cartId) {
+        var lock = lockFor(cartId);
+        lock.lock();
+        try {
+            var cart = carts.get(cartId);
+            if (cart == null || !cart.dirty) {
+                return null;
+            }
+            cart.dirty = false;
+            return new PendingWrite(new CartState(cart.id, cart.dateCreated, cart.quantities).snapshot(), !cart.persisted);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A failed batch is retried cart by cart, so one cart that cannot be written does not hold back the others.
+    // Carts that still fail are logged and retried by the next flush; the other batches are still written.
+    private void writeAndContinue(List<PendingWrite> batch) {
+        try {
+            write(batch);
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed(batch.get(0), e);
+                return;
+            }
+            log.warn("Failed to flush {} carts together, writing them one at a time", batch.size(), e);
+        }
+        for (var pending : batch) {
+            try {
+                write(List.of(pending));
+            } catch (RuntimeException e) {
+                failed(pending, e);
+            }
+        }
+    }
+
+    // Nothing of the cart was written: mark it dirty again so the next flush retries it
+    private void failed(PendingWrite pending, RuntimeException e) {
+        log.error("Failed to flush cart {}, will retry", pending.state().id(), e);
+        markDirty(pending.state().id());
+    }
+
+    private void write(List<PendingWrite> batch) {
+        var skipped = transactionTemplate.execute(status -> {
+            var inserts = new LinkedHashMap<UUID, LocalDate>();
+            var lines = new LinkedHashMap<UUID, Map<Integer, Integer>>();
+            for (var pending : batch) {
+                if (pending.insert()) {
+                    inserts.put(pending.state().id(), pending.state().dateCreated());
+                }
+                lines.put(pending.state().id(), pending.state().quantities());
+            }
+            cartItemJdbcRepository.insertCarts(inserts);
+            return cartItemJdbcRepository.replaceLines(lines);
+        });
+        for (var pending : batch) {
+            if (pending.insert()) {
+                markPersisted(pending.state().id());
+            }
+        }
+        if (skipped != null) {
+            skipped.forEach(this::dropProducts);
+        }
+        log.debug("Flushed {} carts", batch.size());
+    }
+
+    private void markDirty(UUID cartId) {
+        var lock = lockFor(cartId);
+        lock.lock();
+        try {
+            var cart = carts.get(cartId);
+            if (cart != null) {
+                cart.dirty = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markPersisted(UUID cartId) {
+        var lock = lockFor(cartId);
+        lock.lock();
+        try {
+            var cart = carts.get(cartId);
+            if (cart != null) {
+                cart.persisted = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Products deleted while in the cart were not written; they are dropped from memory too
+    private void dropProducts(UUID cartId, List<Integer> productIds) {
+        log.warn("Dropped products {} from cart {}: they no longer exist", productIds, cartId);
+        var lock = lockFor(cartId);
+        lock.lock();
+        try {
+            var cart = carts.get(cartId);
+            if (cart != null) {
+                productIds.forEach(cart.quantities::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Loaded in its own read-write transaction, so from the primary: a lagging replica could miss the cart
+    private HotCart load(UUID cartId) {
+        var lines = transactionTemplate.execute(status -> cartRepository.findLinesByCartId(cartId));
+        if (lines == null || lines.isEmpty()) {
+            return null;
+        }
+        var quantities = new LinkedHashMap<Integer, Integer>();
+        for (var line : lines) {
+            if (line.getProductId() != null) {
+                quantities.put(line.getProductId(), line.getQuantity());
+            }
+        }
+        return new HotCart(cartId, lines.get(0).getDateCreated(), quantities, true);
+    }
+
+    private ReentrantLock lockFor(UUID cartId) {
+        return stripes[stripeOf(cartId)];
+    }
+
+    private int stripeOf(UUID cartId) {
+        return Math.floorMod(cartId.hashCode(), stripes.length);
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.sidd6p.store.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sidd6p.store.config.CatalogCacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of fully encoded catalog responses.
+ * <p>
+ * Each entry holds the JSON bytes, a gzip-compressed copy and a strong ETag derived from the content,
+ * so a hit costs no query, no mapping and no serialization. Entries are tagged with the
+ * {@link CatalogVersion} they were built at and are rebuilt on the first read after a product write.
+ * <p>
+ * Entries are keyed by response and version and loaded through the cache, so when many requests miss
+ * at once only one of them queries and encodes; the rest wait for its result.
+ */
+@Component
+@Slf4j
+public class CatalogResponseCache {
+
+    /**
+     * One encoded response body. The gzip copy has its own ETag since it is a different representation.
+     */
+    public record CachedResponse(long version, byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+
+    private record VersionedKey(String key, long version) {
+    }
+
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final Cache cache;
+    // Newest version built per key, so the entry it replaces can be dropped instead of waiting for the TTL
+    private final ConcurrentMap<String, Long> latestVersions = new ConcurrentHashMap<>();
+
+    public CatalogResponseCache(CatalogVersion catalogVersion, ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.cache = cacheManager.getCache(CatalogCacheConfig.CATALOG_RESPONSES);
+    }
+
+    /**
+     * Returns the encoded response for the key, building it from {@code body} when it is missing or stale.
+     */
+    public CachedResponse get(String key, Supplier<?> body) {
+        // Read the version before the data: a write that lands in between leaves this entry already stale
+        long version = catalogVersion.current();
+        CachedResponse response;
+        try {
+            response = cache.get(new VersionedKey(key, version), () -> {
+                log.info("Encoding catalog response for {} at version {}", key, version);
+                return encode(version, body.get());
+            });
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        // Of this entry and the one built before it, the older can no longer be read
+        var superseded = new long[]{-1};
+        latestVersions.compute(key, (k, latest) -> {
+            if (latest != null && latest != version) {
+                superseded[0] = Math.min(latest, version);
+                return Math.max(latest, version);
+            }
+            return version;
+        });
+        if (superseded[0] >= 0) {
+            cache.evictIfPresent(new VersionedKey(key, superseded[0]));
+        }
+        return response;
+    }
+
+    private CachedResponse encode(long version, Object body) {
+        try {
+            var json = objectMapper.writeValueAsBytes(body);
+            var tag = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Arrays.copyOf(MessageDigest.getInstance("SHA-256").digest(json), 16));
+            return new CachedResponse(version, json, gzip(json), "\"" + tag + "\"", "\"" + tag + "-gzip\"");
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize catalog response: " + e.getMessage(), e);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to provide SHA-256
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        var buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
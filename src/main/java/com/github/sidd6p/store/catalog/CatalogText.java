@@ -0,0 +1,47 @@
+package com.github.sidd6p.store.catalog;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Text normalization shared by the in-memory catalog indexes, so that indexing and querying
+ * agree on what counts as the same word.
+ */
+final class CatalogText {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private CatalogText() {
+    }
+
+    /**
+     * Lower-cases the text and strips accents, e.g. "Café Crème" becomes "cafe creme".
+     */
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        return COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits folded text into distinct words, keeping their first-occurrence order.
+     */
+    static Set<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Set.of();
+        }
+        var tokens = new LinkedHashSet<String>();
+        for (var token : TOKEN_SEPARATOR.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.config.CatalogCacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter bumped after every committed product write. Anything derived from the catalog can
+ * remember the version it was built at and treat itself as stale once the counter has moved on.
+ * <p>
+ * The per-category product lists feed the encoded responses, so they are dropped here, before the bump:
+ * a response rebuilt at the new version can then never be filled from a list read before the write.
+ */
+@Component
+public class CatalogVersion {
+    private final AtomicLong version = new AtomicLong();
+    private final Cache productsByCategory;
+
+    public CatalogVersion(CacheManager cacheManager) {
+        this.productsByCategory = cacheManager.getCache(CatalogCacheConfig.PRODUCTS_BY_CATEGORY);
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        advance();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductBatchSaved(ProductBatchSavedEvent event) {
+        advance();
+    }
+
+    private void advance() {
+        // invalidate() is applied immediately; an evict() would be deferred to a synchronization that never
+        // runs, since this already runs after the commit
+        productsByCategory.invalidate();
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory lookup of categories by id and by name.
+ * <p>
+ * Categories are few and rarely change, but nearly every product read and write needs one. The registry
+ * loads them all on first use and is kept current by {@link EntityListener}, which applies every JPA
+ * insert, update and delete of a category once its transaction commits. Lookups read an immutable
+ * snapshot and never block.
+ * <p>
+ * The {@link Category} instances held here are detached copies without their product collection. Use
+ * {@link #reference(Integer)} to get an instance that can be assigned to a product being saved.
+ */
+@Component
+@Slf4j
+public class CategoryRegistry {
+
+    private record Snapshot(Map<Integer, Category> byId, Map<String, Category> byName) {
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final EntityManager entityManager;
+    private volatile Snapshot snapshot;
+
+    public CategoryRegistry(CategoryRepository categoryRepository, EntityManager entityManager) {
+        this.categoryRepository = categoryRepository;
+        this.entityManager = entityManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        var byId = new HashMap<Integer, Category>();
+        var byName = new HashMap<String, Category>();
+        categoryRepository.findAll().forEach(category -> {
+            var copy = copyOf(category.getId(), category.getName());
+            byId.put(copy.getId(), copy);
+            byName.put(nameKey(copy.getName()), copy);
+        });
+        snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName));
+        log.info("Loaded {} categories", byId.size());
+    }
+
+    /**
+     * Looks the category up by id. Ids missing from memory (e.g. rows inserted with plain SQL) are read
+     * from the database once and remembered.
+     */
+    public Optional<Category> findById(Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        var category = current().byId().get(id);
+        if (category != null) {
+            return Optional.of(category);
+        }
+        return categoryRepository.findById(id).map(found -> register(found.getId(), found.getName()));
+    }
+
+    /**
+     * Looks the category up by name, ignoring case like the database collation does.
+     */
+    public Optional<Category> findByName(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().byName().get(nameKey(name)));
+    }
+
+    /**
+     * Returns a reference to the category usable as a product association, without a SELECT.
+     * Empty when no category has this id.
+     */
+    public Optional<Category> reference(Integer id) {
+        return findById(id).map(category -> entityManager.getReference(Category.class, category.getId()));
+    }
+
+    /**
+     * Name of the given category, resolved from memory so that lazy category proxies are never initialized.
+     */
+    public String nameOf(Category category) {
+        if (category == null) {
+            return null;
+        }
+        return findById(category.getId()).map(Category::getName).orElse(null);
+    }
+
+    public int size() {
+        return current().byId().size();
+    }
+
+    private Snapshot current() {
+        var current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private synchronized Category register(Integer id, String name) {
+        var current = current();
+        var byId = new HashMap<>(current.byId());
+        var byName = new HashMap<>(current.byName());
+        var previous = byId.get(id);
+        if (previous != null) {
+            byName.remove(nameKey(previous.getName()));
+        }
+        var copy = copyOf(id, name);
+        byId.put(id, copy);
+        byName.put(nameKey(name), copy);
+        snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName));
+        return copy;
+    }
+
+    private synchronized void unregister(Integer id) {
+        var current = current();
+        var previous = current.byId().get(id);
+        if (previous == null) {
+            return;
+        }
+        var byId = new HashMap<>(current.byId());
+        var byName = new HashMap<>(current.byName());
+        byId.remove(id);
+        byName.remove(nameKey(previous.getName()));
+        snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName));
+    }
+
+    private static Category copyOf(Integer id, String name) {
+        return Category.builder().id(id).name(name).build();
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * JPA entity listener registered on {@link Category}. Created by Hibernate through Spring, so the
+     * registry is looked up lazily to avoid a dependency cycle with the EntityManagerFactory.
+     */
+    public static class EntityListener {
+        private final ObjectProvider<CategoryRegistry> registry;
+
+        public EntityListener(ObjectProvider<CategoryRegistry> registry) {
+            this.registry = registry;
+        }
+
+        @PostPersist
+        @PostUpdate
+        void onSaved(Category category) {
+            var id = category.getId();
+            var name = category.getName();
+            afterCommit(() -> registry.getObject().register(id, name));
+        }
+
+        @PostRemove
+        void onRemoved(Category category) {
+            var id = category.getId();
+            afterCommit(() -> registry.getObject().unregister(id));
+        }
+
+        private static void afterCommit(Runnable action) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                action.run();
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+
+import java.util.List;
+
+/**
+ * Published after a bulk write has created or updated many products at once.
+ *
+ * @param products state of every written product after the change
+ */
+public record ProductBatchSavedEvent(List<ProductDto> products) {
+}
@@ -0,0 +1,24 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+
+/**
+ * Published by ProductService after a product has been created, updated or deleted.
+ *
+ * @param productId id of the changed product
+ * @param product   state after the change, or null when the product was deleted
+ */
+public record ProductChangedEvent(Integer productId, ProductDto product) {
+
+    public static ProductChangedEvent saved(ProductDto product) {
+        return new ProductChangedEvent(product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Integer productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.entities.Product;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the Hibernate second-level cache correct after product writes that bypass Hibernate.
+ * <p>
+ * Bulk endpoints and the catalog import write with plain JDBC, which Hibernate does not see: cached product
+ * entities would keep their old state until they expire. Once such a batch commits, its products are evicted.
+ */
+@Component
+@AllArgsConstructor
+public class ProductEntityCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductBatchSaved(ProductBatchSavedEvent event) {
+        var cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        event.products().forEach(product -> cache.evictEntityData(Product.class, product.getId()));
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.money.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Product counts per category and per price bucket, kept up to date on every product write.
+ * <p>
+ * The facet each product currently counts towards is remembered, so an update or delete adjusts
+ * just the counters it affects. Reading the facets costs one pass over the counters and never
+ * touches the products themselves.
+ */
+@Component
+public class ProductFacetIndex implements ProductIndex {
+
+    private record Facets(String category, int bucket) {
+    }
+
+    /**
+     * Number of products priced in [min, max). {@code max} is null for the last, open-ended bucket.
+     */
+    public record PriceBucket(BigDecimal min, BigDecimal max, int count) {
+    }
+
+    /**
+     * Facet counts at one point in time. Categories are ordered by name.
+     */
+    public record Counts(int total, Map<String, Integer> categories, List<PriceBucket> priceBuckets) {
+    }
+
+    // Upper bounds (exclusive) of every bucket but the last, in cents
+    private final long[] bucketBounds;
+    private final BigDecimal[] bucketBoundPrices;
+    private final int[] bucketCounts;
+    private final Map<String, Integer> categoryCounts = new HashMap<>();
+    private final Map<Integer, Facets> facetsById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductFacetIndex(@Value("${catalog.facets.priceBuckets:10,25,50,100,250,500,1000}") BigDecimal[] bounds) {
+        var sorted = Arrays.stream(bounds).distinct().sorted().toArray(BigDecimal[]::new);
+        if (sorted.length > 0 && sorted[0].signum() <= 0) {
+            throw new IllegalArgumentException("Price bucket bounds must be positive");
+        }
+        bucketBoundPrices = sorted;
+        bucketBounds = Arrays.stream(sorted).mapToLong(Money::toMinorUnits).toArray();
+        bucketCounts = new int[sorted.length + 1];
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDto> products) {
+        lock.writeLock().lock();
+        try {
+            facetsById.clear();
+            categoryCounts.clear();
+            Arrays.fill(bucketCounts, 0);
+            products.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsertAll(Collection<ProductDto> products) {
+        lock.writeLock().lock();
+        try {
+            for (var product : products) {
+                delete(product.getId());
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Counts counts() {
+        lock.readLock().lock();
+        try {
+            var buckets = new ArrayList<PriceBucket>(bucketCounts.length);
+            for (int i = 0; i < bucketCounts.length; i++) {
+                var min = i == 0 ? BigDecimal.ZERO : bucketBoundPrices[i - 1];
+                var max = i < bucketBoundPrices.length ? bucketBoundPrices[i] : null;
+                buckets.add(new PriceBucket(min, max, bucketCounts[i]));
+            }
+            return new Counts(facetsById.size(), new TreeMap<>(categoryCounts), buckets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductDto product) {
+        var facets = new Facets(product.getCategoryName(), bucketOf(product.getPrice()));
+        facetsById.put(product.getId(), facets);
+        if (facets.category() != null) {
+            categoryCounts.merge(facets.category(), 1, Integer::sum);
+        }
+        if (facets.bucket() >= 0) {
+            bucketCounts[facets.bucket()]++;
+        }
+    }
+
+    private void delete(Integer productId) {
+        var facets = facetsById.remove(productId);
+        if (facets == null) {
+            return;
+        }
+        if (facets.category() != null) {
+            // Drops the category once its last product is gone
+            categoryCounts.computeIfPresent(facets.category(), (name, count) -> count > 1 ? count - 1 : null);
+        }
+        if (facets.bucket() >= 0) {
+            bucketCounts[facets.bucket()]--;
+        }
+    }
+
+    private int bucketOf(BigDecimal price) {
+        if (price == null) {
+            return -1;
+        }
+        int position = Arrays.binarySearch(bucketBounds, Money.toMinorUnits(price));
+        // An exact match on a bound belongs to the bucket that starts there
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+
+import java.util.Collection;
+
+/**
+ * An in-memory structure derived from the products table.
+ * <p>
+ * Every implementation is built once at startup from a full catalog snapshot and then kept
+ * in sync with product writes by {@link ProductIndexMaintainer}. Implementations must be thread-safe.
+ */
+public interface ProductIndex {
+
+    /**
+     * Replaces the whole index content with the given catalog snapshot.
+     */
+    void rebuild(Collection<ProductDto> products);
+
+    /**
+     * Adds a new product or replaces the previous state of an existing one.
+     */
+    void upsert(ProductDto product);
+
+    /**
+     * Applies many upserts at once. Implementations whose single upsert is expensive can override this
+     * to restructure the index once per batch.
+     */
+    default void upsertAll(Collection<ProductDto> products) {
+        products.forEach(this::upsert);
+    }
+
+    void remove(Integer productId);
+}
@@ -0,0 +1,92 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.mappers.ProductMapper;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Loads every {@link ProductIndex} from the database at startup and applies product writes to them.
+ * <p>
+ * The catalog is read once and shared by all indexes, so adding an index does not add another full table scan.
+ * The build runs once all beans exist, before the web server starts, so no request sees the empty indexes.
+ * Change events are applied after the surrounding transaction commits (or immediately when there is none),
+ * so indexes never expose data that was rolled back. Changes that arrive before the first build are queued and
+ * replayed on top of the snapshot, which may have been read before they committed.
+ */
+@Component
+@Slf4j
+public class ProductIndexMaintainer implements SmartInitializingSingleton {
+    private final List<ProductIndex> indexes;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate transactionTemplate;
+    // Changes received before the first build, in arrival order. Guarded by this.
+    private final List<Consumer<ProductIndex>> changedBeforeBuild = new ArrayList<>();
+    private boolean built;
+
+    public ProductIndexMaintainer(List<ProductIndex> indexes,
+                                  ProductRepository productRepository,
+                                  ProductMapper productMapper,
+                                  TransactionTemplate transactionTemplate) {
+        this.indexes = indexes;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuildAll();
+    }
+
+    // Deliberately not read-only: the snapshot must come from the primary, since a lagging read replica would
+    // leave the latest products out of every index. The query itself still skips dirty-checking snapshots.
+    public void rebuildAll() {
+        List<ProductDto> products = transactionTemplate.execute(status -> {
+            try (var stream = productRepository.streamAll()) {
+                return stream.map(productMapper::toDto).toList();
+            }
+        });
+        synchronized (this) {
+            indexes.forEach(index -> index.rebuild(products));
+            changedBeforeBuild.forEach(indexes::forEach);
+            log.info("Built {} product indexes from {} products and {} later changes",
+                    indexes.size(), products.size(), changedBeforeBuild.size());
+            changedBeforeBuild.clear();
+            built = true;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            apply(index -> index.remove(event.productId()));
+        } else {
+            apply(index -> index.upsert(event.product()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductBatchSaved(ProductBatchSavedEvent event) {
+        apply(index -> index.upsertAll(event.products()));
+    }
+
+    private void apply(Consumer<ProductIndex> change) {
+        synchronized (this) {
+            if (!built) {
+                changedBeforeBuild.add(change);
+                return;
+            }
+        }
+        indexes.forEach(change);
+    }
+}
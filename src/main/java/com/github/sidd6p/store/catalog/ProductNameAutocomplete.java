@@ -0,0 +1,222 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sorted-array prefix index over product names used for type-ahead.
+ * <p>
+ * Folded names are kept in one sorted array (with parallel arrays for the display name and id),
+ * so a lookup is a binary search for the first key at or after the prefix followed by a short
+ * forward scan. There are no per-character nodes, which keeps a million names at roughly the
+ * size of the strings themselves.
+ * <p>
+ * Readers work on an immutable snapshot and never block. Writers copy the arrays, which is cheap
+ * for the few hundred catalog changes a day this index is sized for.
+ */
+@Component
+public class ProductNameAutocomplete implements ProductIndex {
+
+    private record Snapshot(String[] keys, String[] names, int[] ids) {
+        static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], new int[0]);
+
+        /**
+         * Index of the first entry whose (key, id) is not less than the given pair.
+         */
+        int lowerBound(String key, int id) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = keys[mid].compareTo(key);
+                if (cmp < 0 || (cmp == 0 && ids[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private record Entry(String key, ProductDto product) {
+    }
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // Folded key currently indexed for each product id, needed to locate the entry on update/remove.
+    // Guarded by this.
+    private final Map<Integer, String> keysById = new HashMap<>();
+
+    @Override
+    public synchronized void rebuild(Collection<ProductDto> products) {
+        var sorted = products.stream()
+                .filter(product -> product.getName() != null)
+                .map(product -> new Entry(CatalogText.fold(product.getName()), product))
+                .sorted(Comparator.comparing(Entry::key).thenComparing(entry -> entry.product().getId()))
+                .toList();
+
+        var keys = new String[sorted.size()];
+        var names = new String[sorted.size()];
+        var ids = new int[sorted.size()];
+        keysById.clear();
+        for (int i = 0; i < sorted.size(); i++) {
+            var entry = sorted.get(i);
+            keys[i] = entry.key();
+            names[i] = entry.product().getName();
+            ids[i] = entry.product().getId();
+            keysById.put(ids[i], keys[i]);
+        }
+        snapshot = new Snapshot(keys, names, ids);
+    }
+
+    @Override
+    public synchronized void upsert(ProductDto product) {
+        remove(product.getId());
+        if (product.getName() == null) {
+            return;
+        }
+
+        var current = snapshot;
+        var key = CatalogText.fold(product.getName());
+        int position = current.lowerBound(key, product.getId());
+        snapshot = new Snapshot(
+                insertAt(current.keys(), position, key),
+                insertAt(current.names(), position, product.getName()),
+                insertAt(current.ids(), position, product.getId()));
+        keysById.put(product.getId(), key);
+    }
+
+    /**
+     * Applies a whole batch with one linear merge instead of one array copy per product.
+     */
+    @Override
+    public synchronized void upsertAll(Collection<ProductDto> products) {
+        var latest = new LinkedHashMap<Integer, ProductDto>();
+        products.forEach(product -> latest.put(product.getId(), product));
+
+        var added = latest.values().stream()
+                .filter(product -> product.getName() != null)
+                .map(product -> new Entry(CatalogText.fold(product.getName()), product))
+                .sorted(Comparator.comparing(Entry::key).thenComparing(entry -> entry.product().getId()))
+                .toList();
+
+        var current = snapshot;
+        int capacity = current.keys().length + added.size();
+        var keys = new String[capacity];
+        var names = new String[capacity];
+        var ids = new int[capacity];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < current.keys().length || j < added.size()) {
+            if (i < current.keys().length && latest.containsKey(current.ids()[i])) {
+                // Previous state of a product in this batch; its new entry comes from `added`
+                i++;
+                continue;
+            }
+            boolean takeExisting = j == added.size() || (i < current.keys().length
+                    && compare(current.keys()[i], current.ids()[i], added.get(j).key(), added.get(j).product().getId()) < 0);
+            if (takeExisting) {
+                keys[size] = current.keys()[i];
+                names[size] = current.names()[i];
+                ids[size] = current.ids()[i];
+                i++;
+            } else {
+                var entry = added.get(j++);
+                keys[size] = entry.key();
+                names[size] = entry.product().getName();
+                ids[size] = entry.product().getId();
+            }
+            size++;
+        }
+
+        latest.keySet().forEach(keysById::remove);
+        added.forEach(entry -> keysById.put(entry.product().getId(), entry.key()));
+        snapshot = new Snapshot(Arrays.copyOf(keys, size), Arrays.copyOf(names, size), Arrays.copyOf(ids, size));
+    }
+
+    @Override
+    public synchronized void remove(Integer productId) {
+        var key = keysById.remove(productId);
+        if (key == null) {
+            return;
+        }
+
+        var current = snapshot;
+        int position = current.lowerBound(key, productId);
+        snapshot = new Snapshot(
+                removeAt(current.keys(), position),
+                removeAt(current.names(), position),
+                removeAt(current.ids(), position));
+    }
+
+    /**
+     * Returns up to {@code limit} distinct product names starting with the prefix, in alphabetical order.
+     * Matching ignores case and accents.
+     */
+    public List<String> complete(String prefix, int limit) {
+        var folded = CatalogText.fold(prefix);
+        if (folded.isBlank() || limit <= 0) {
+            return List.of();
+        }
+
+        var current = snapshot;
+        var completions = new ArrayList<String>(limit);
+        String previousKey = null;
+        for (int i = current.lowerBound(folded, Integer.MIN_VALUE);
+             i < current.keys().length && completions.size() < limit && current.keys()[i].startsWith(folded);
+             i++) {
+            // Entries with the same folded key are adjacent; only the first one is returned
+            if (!current.keys()[i].equals(previousKey)) {
+                completions.add(current.names()[i]);
+                previousKey = current.keys()[i];
+            }
+        }
+        return completions;
+    }
+
+    public int size() {
+        return snapshot.keys().length;
+    }
+
+    private static int compare(String key, int id, String otherKey, int otherId) {
+        int byKey = key.compareTo(otherKey);
+        return byKey != 0 ? byKey : Integer.compare(id, otherId);
+    }
+
+    private static String[] insertAt(String[] array, int position, String value) {
+        var copy = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, position, copy, position + 1, array.length - position);
+        copy[position] = value;
+        return copy;
+    }
+
+    private static int[] insertAt(int[] array, int position, int value) {
+        var copy = Arrays.copyOf(array, array.length + 1);
+        System.arraycopy(array, position, copy, position + 1, array.length - position);
+        copy[position] = value;
+        return copy;
+    }
+
+    private static String[] removeAt(String[] array, int position) {
+        var copy = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, position + 1, copy, position, array.length - position - 1);
+        return copy;
+    }
+
+    private static int[] removeAt(int[] array, int position) {
+        var copy = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, position + 1, copy, position, array.length - position - 1);
+        return copy;
+    }
+}
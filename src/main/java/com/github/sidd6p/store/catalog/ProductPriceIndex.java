@@ -0,0 +1,176 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.money.Money;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Products ordered by price, used to answer price range queries without touching the database.
+ * <p>
+ * Prices are stored as long minor units (cents) so ordering and range checks are plain integer
+ * comparisons. Entries are ordered by (price, id), which gives every product a unique position and
+ * lets callers page through a range with a (price, id) cursor.
+ * <p>
+ * Each category has its own ordered set next to the one holding every product, so a category-filtered
+ * page seeks straight to its first entry and reads only matching products, however many products of other
+ * categories share the price range.
+ */
+@Component
+public class ProductPriceIndex implements ProductIndex {
+
+    private record Entry(long priceMinor, int id) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byPrice = Long.compare(priceMinor, other.priceMinor);
+            return byPrice != 0 ? byPrice : Integer.compare(id, other.id);
+        }
+    }
+
+    /**
+     * One page of a range query. {@code hasNext} is true when more matching products follow the last one returned.
+     */
+    public record Page(List<ProductDto> products, boolean hasNext) {
+    }
+
+    private final NavigableSet<Entry> entries = new TreeSet<>();
+    // Keyed by lower-cased category name; products without a category are only in entries
+    private final Map<String, NavigableSet<Entry>> entriesByCategory = new HashMap<>();
+    private final Map<Integer, ProductDto> products = new HashMap<>();
+    private final Map<Integer, Entry> entriesById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Highest price the index can hold.
+     */
+    public static final BigDecimal MAX_PRICE = Money.MAX_AMOUNT;
+
+    @Override
+    public void rebuild(Collection<ProductDto> snapshot) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            entriesByCategory.clear();
+            products.clear();
+            entriesById.clear();
+            snapshot.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns products priced within [minPrice, maxPrice] that sort after the (afterPrice, afterId) position,
+     * in (price, id) order.
+     *
+     * Bounds finer than a cent only match the prices they contain, so minPrice is rounded up and maxPrice down.
+     *
+     * @param category   category name to filter by (case-insensitive), or null for all categories
+     * @param afterPrice price of the last product of the previous page, or null to start at minPrice
+     * @throws ArithmeticException if a bound is above {@link #MAX_PRICE}
+     */
+    public Page findInRange(BigDecimal minPrice, BigDecimal maxPrice, String category,
+                            BigDecimal afterPrice, int afterId, int limit) {
+        // Compared before conversion, so a cursor from outside the range cannot overflow
+        if (afterPrice != null && afterPrice.compareTo(maxPrice) > 0) {
+            return new Page(List.of(), false);
+        }
+        long min = Money.toMinorUnits(minPrice, RoundingMode.CEILING);
+        long max = Money.toMinorUnits(maxPrice, RoundingMode.FLOOR);
+        var start = afterPrice == null || afterPrice.compareTo(minPrice) < 0
+                ? new Entry(min, Integer.MIN_VALUE)
+                : new Entry(Money.toMinorUnits(afterPrice), afterId);
+
+        var end = new Entry(max, Integer.MAX_VALUE);
+        if (start.compareTo(end) >= 0) {
+            return new Page(List.of(), false);
+        }
+
+        lock.readLock().lock();
+        try {
+            var candidates = category == null ? entries : entriesByCategory.get(categoryKey(category));
+            if (candidates == null) {
+                return new Page(List.of(), false);
+            }
+            var page = new ArrayList<ProductDto>(limit);
+            for (var entry : candidates.subSet(start, false, end, true)) {
+                if (page.size() == limit) {
+                    return new Page(page, true);
+                }
+                page.add(products.get(entry.id()));
+            }
+            return new Page(page, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductDto product) {
+        if (product.getPrice() == null) {
+            return;
+        }
+        var entry = new Entry(Money.toMinorUnits(product.getPrice()), product.getId());
+        entries.add(entry);
+        if (product.getCategoryName() != null) {
+            entriesByCategory.computeIfAbsent(categoryKey(product.getCategoryName()), key -> new TreeSet<>()).add(entry);
+        }
+        entriesById.put(product.getId(), entry);
+        products.put(product.getId(), product);
+    }
+
+    private void delete(Integer productId) {
+        var entry = entriesById.remove(productId);
+        var product = products.remove(productId);
+        if (entry == null) {
+            return;
+        }
+        entries.remove(entry);
+        if (product.getCategoryName() != null) {
+            var key = categoryKey(product.getCategoryName());
+            var categoryEntries = entriesByCategory.get(key);
+            if (categoryEntries != null) {
+                categoryEntries.remove(entry);
+                if (categoryEntries.isEmpty()) {
+                    entriesByCategory.remove(key);
+                }
+            }
+        }
+    }
+
+    private static String categoryKey(String categoryName) {
+        return categoryName.toLowerCase(Locale.ROOT);
+    }
+}
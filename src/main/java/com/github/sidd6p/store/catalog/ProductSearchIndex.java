@@ -0,0 +1,127 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over product names used by /products/search.
+ * <p>
+ * Names are split into case-folded, accent-free tokens and each token maps to the ids of the
+ * products containing it. A search only touches the posting lists of the query tokens, so its
+ * cost depends on how many products match rather than on the size of the products table.
+ * <p>
+ * Results are ranked by the number of distinct query tokens a name contains, then by how few
+ * other tokens the name has (closer matches first), then by name and id for a stable order.
+ */
+@Component
+public class ProductSearchIndex implements ProductIndex {
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Map<Integer, ProductDto> products = new HashMap<>();
+    private final Map<Integer, Set<String>> tokensByProduct = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void rebuild(Collection<ProductDto> snapshot) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            products.clear();
+            tokensByProduct.clear();
+            snapshot.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Integer productId) {
+        lock.writeLock().lock();
+        try {
+            delete(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products whose names contain at least one token of the query, best matches first.
+     */
+    public List<ProductDto> search(String query, int limit) {
+        var queryTokens = CatalogText.tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            var scores = new HashMap<Integer, Integer>();
+            for (var token : queryTokens) {
+                var ids = postings.get(token);
+                if (ids != null) {
+                    ids.forEach(id -> scores.merge(id, 1, Integer::sum));
+                }
+            }
+
+            Comparator<Map.Entry<Integer, Integer>> ranking = Comparator
+                    .<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                    .thenComparingInt(entry -> tokensByProduct.get(entry.getKey()).size())
+                    .thenComparing(entry -> products.get(entry.getKey()).getName(), Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Map.Entry::getKey);
+
+            // Keep only the best `limit` candidates in a bounded heap whose head is the worst one kept
+            var best = new PriorityQueue<>(limit, ranking.reversed());
+            for (var entry : scores.entrySet()) {
+                best.offer(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            var results = new ArrayList<ProductDto>(best.size());
+            while (!best.isEmpty()) {
+                results.add(products.get(best.poll().getKey()));
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductDto product) {
+        var tokens = CatalogText.tokenize(product.getName());
+        products.put(product.getId(), product);
+        tokensByProduct.put(product.getId(), tokens);
+        tokens.forEach(token -> postings.computeIfAbsent(token, key -> new HashSet<>()).add(product.getId()));
+    }
+
+    private void delete(Integer productId) {
+        var tokens = tokensByProduct.remove(productId);
+        products.remove(productId);
+        if (tokens == null) {
+            return;
+        }
+        for (var token : tokens) {
+            var ids = postings.get(token);
+            ids.remove(productId);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.sidd6p.store.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process read-through cache for catalog reads served by ProductService.
+ * <p>
+ * Both caches are bounded by entry count and expire entries after a fixed time since they were written,
+ * so a missed invalidation can never keep stale data around longer than the TTL.
+ * Statistics are recorded so that hit/miss/eviction counters show up under /actuator/metrics/cache.*
+ * <p>
+ * Puts and evictions made inside a transaction are applied only after it commits, so a concurrent reader
+ * cannot load the old row back into the cache between the eviction and the commit.
+ */
+@Configuration
+@EnableCaching
+@ConfigurationProperties(prefix = "catalog.cache")
+@Data
+public class CatalogCacheConfig {
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_CATEGORY = "productsByCategory";
+    public static final String CATALOG_RESPONSES = "catalogResponses";
+
+    private long productMaxSize = 10_000;
+    private long categoryMaxSize = 500;
+    private long responseMaxSize = 500;
+    private Duration ttl = Duration.ofMinutes(10);
+
+    @Bean
+    public CacheManager cacheManager() {
+        var cacheManager = new CaffeineCacheManager();
+        // Registering the caches up front (instead of creating them lazily) lets actuator bind their metrics at startup
+        cacheManager.registerCustomCache(PRODUCTS, Caffeine.newBuilder()
+                .maximumSize(productMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(PRODUCTS_BY_CATEGORY, Caffeine.newBuilder()
+                .maximumSize(categoryMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        // Encoded response bodies, validated against the catalog version on every read
+        cacheManager.registerCustomCache(CATALOG_RESPONSES, Caffeine.newBuilder()
+                .maximumSize(responseMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.sidd6p.store.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Sends read-only transactions to a read replica and everything else to the primary database.
+ * <p>
+ * Active only when {@code spring.datasource.replica.url} is set; otherwise the single auto-configured
+ * data source is used as before. Both pools are Hikari beans named "primary" and "replica", so each gets its
+ * own {@code hikaricp.*} and {@code jdbc.connections.*} metrics and its own health check.
+ * <p>
+ * The data source used by JPA is a {@link LazyConnectionDataSourceProxy}: it only fetches a physical
+ * connection at the first statement, when the transaction's read-only flag is already known, and then takes
+ * it from the replica for {@code @Transactional(readOnly = true)} work. Reads on the replica may lag behind
+ * writes that just committed on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+@ConfigurationProperties(prefix = "spring.datasource.replica")
+@Data
+public class DataSourceRoutingConfig {
+    private String url;
+    private String username;
+    private String password;
+    // How long read-only work stays on the primary after the replica failed to hand out a connection
+    private Duration retryAfter = Duration.ofSeconds(30);
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        var dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        var dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // Start even when the replica is down; reads fall back to the primary until it is back
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        var dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaFallbackDataSource(replicaDataSource, primaryDataSource, retryAfter));
+        return dataSource;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.sidd6p.store.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.Data;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level cache for read-mostly entities (products, categories, tags).
+ * <p>
+ * Only entities are cached. Catalog lists are read as DTO projections and cached by {@link CatalogCacheConfig},
+ * so the query cache is left off.
+ * <p>
+ * Regions live in a dedicated local Caffeine JCache manager, created here from the sizes and expiry times in
+ * {@code catalog.entityCache.regions} rather than from a separate provider config file. Hibernate fails at
+ * startup if an entity names a region that is not configured, so every region is sized deliberately.
+ * Entries are stored by reference: Hibernate only puts immutable disassembled state into the cache.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "catalog.entity-cache")
+@Data
+public class EntityCacheConfig {
+    public static final String PRODUCTS_REGION = "products";
+    public static final String CATEGORIES_REGION = "categories";
+    public static final String TAGS_REGION = "tags";
+
+    @Data
+    public static class Region {
+        private long maxSize = 1_000;
+        // Null means entries never expire
+        private Duration ttl;
+    }
+
+    private boolean enabled = true;
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A URI of its own keeps these regions apart from any other JCache user in the JVM
+        var cacheManager = provider.getCacheManager(URI.create("store:entity-cache"), getClass().getClassLoader());
+        regions.forEach((name, region) -> {
+            var configuration = new CaffeineConfiguration<Object, Object>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            if (region.getTtl() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            }
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            if (cacheManager.getCache(name) == null) {
+                cacheManager.createCache(name, configuration);
+            }
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.sidd6p.store.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Read-replica data source that falls back to the primary when the replica cannot hand out a connection.
+ * <p>
+ * After a failure the replica is skipped for {@code retryAfter}, so read-only requests do not each wait for
+ * the replica's connection timeout while it is down. The first request after that period probes it again.
+ */
+@Slf4j
+public class ReplicaFallbackDataSource extends DelegatingDataSource {
+    private final DataSource primary;
+    private final long retryAfterNanos;
+    private volatile long replicaRetryAt;
+    private volatile boolean replicaDown;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration retryAfter) {
+        super(replica);
+        this.primary = primary;
+        this.retryAfterNanos = retryAfter.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicaDown && System.nanoTime() - replicaRetryAt < 0) {
+            return primary.getConnection();
+        }
+        try {
+            var connection = super.getConnection();
+            if (replicaDown) {
+                replicaDown = false;
+                log.info("Read replica is available again");
+            }
+            return connection;
+        } catch (SQLException e) {
+            if (!replicaDown) {
+                log.warn("Read replica unavailable, sending read-only work to the primary: {}", e.getMessage());
+            }
+            replicaRetryAt = System.nanoTime() + retryAfterNanos;
+            replicaDown = true;
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Only used with per-call credentials, which the replica pool does not support
+        return primary.getConnection(username, password);
+    }
+
+    public boolean isReplicaDown() {
+        return replicaDown;
+    }
+}
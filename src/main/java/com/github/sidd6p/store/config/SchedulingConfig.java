@@ -0,0 +1,15 @@
+package com.github.sidd6p.store.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs {@code @Scheduled} methods, such as the periodic flush of the hot cart store and the abandoned cart
+ * purge, on Spring Boot's auto-configured scheduler. Its pool is sized by {@code spring.task.scheduling.pool.size}
+ * in application.yaml: the purge pauses between chunks for as long as it runs, which on the default single
+ * thread would hold back every flush meanwhile.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
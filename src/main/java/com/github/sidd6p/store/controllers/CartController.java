@@ -3,17 +3,20 @@ package com.github.sidd6p.store.controllers;
 import com.github.sidd6p.store.dtos.AddItemToCartRequest;
 import com.github.sidd6p.store.dtos.AddItemToCartResponse;
 import com.github.sidd6p.store.dtos.CartDto;
+import com.github.sidd6p.store.dtos.CartItemOperation;
 import com.github.sidd6p.store.dtos.UpdateCartItemRequest;
 import com.github.sidd6p.store.services.CartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.List;
 import java.util.UUID;
 
 @AllArgsConstructor
@@ -43,7 +46,8 @@ public class CartController {
     }
 
     @PostMapping("/{cartID}/items")
-    @Operation(summary = "Add item to cart", description = "Add a product to the shopping cart.")
+    @Operation(summary = "Add item to cart", description = "Add one unit of a product to the shopping cart. " +
+            "Adding a product that is already in the cart increments its quantity.")
     public ResponseEntity<AddItemToCartResponse> addToCart(@PathVariable UUID cartID,
                                                            @RequestBody AddItemToCartRequest addItemToCartRequest) {
         return cartService.addToCart(cartID, addItemToCartRequest)
@@ -51,6 +55,16 @@ public class CartController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("/{cartID}/items")
+    @Operation(summary = "Apply item operations", description = "Apply a list of ADD, SET_QUANTITY and REMOVE operations " +
+            "to the cart in one transaction and return the resulting cart. If any operation is invalid, none is applied.")
+    public ResponseEntity<CartDto> applyItemOperations(@PathVariable UUID cartID,
+                                                       @Valid @RequestBody List<@NotNull @Valid CartItemOperation> operations) {
+        return cartService.applyItemOperations(cartID, operations)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{cartID}/items/{productId}")
     @Operation(summary = "Update cart item quantity", description = "Update the quantity of a specific item in the cart.")
     public ResponseEntity<CartDto> updateCartItemQuantity(@PathVariable UUID cartID,
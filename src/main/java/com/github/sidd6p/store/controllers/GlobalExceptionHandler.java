@@ -15,6 +15,7 @@ import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
@@ -64,6 +65,42 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Handles validation errors of controller method parameters that are not a single bean,
+     * such as the elements of a @Valid request body list.
+     * <p>
+     * Each error is keyed by parameter name, element index and field, e.g. {@code operations[2].quantity}.
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleHandlerMethodValidation(HandlerMethodValidationException exception,
+                                                                       HttpServletRequest request) {
+        var errors = new HashMap<String, String>();
+
+        exception.getParameterValidationResults().forEach(result -> {
+            String parameterName = result.getMethodParameter().getParameterName()
+                    + (result.getContainerIndex() != null ? "[" + result.getContainerIndex() + "]" : "");
+            result.getResolvableErrors().forEach(error -> {
+                String fieldName = error instanceof FieldError fieldError
+                        ? parameterName + "." + fieldError.getField()
+                        : parameterName;
+                String errorMessage = error.getDefaultMessage();
+                errors.put(fieldName, errorMessage);
+                log.error("Validation error in field '{}': {}", fieldName, errorMessage);
+            });
+        });
+
+        var errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message("Validation failed")
+                .details(errors)
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     /**
      * Handles constraint violation exceptions that occur during entity validation.
      * <p>
@@ -296,7 +333,6 @@ public class GlobalExceptionHandler {
      * Handles IllegalStateException thrown when an operation is attempted in an invalid state.
      * <p>
      * This occurs when:
-     * - Trying to add a product that already exists in the cart
      * - Operations that violate business rules or state constraints
      * <p>
      * Returns 409 Conflict with a descriptive error message.
@@ -1,19 +1,42 @@
 package com.github.sidd6p.store.controllers;
 
 
+import com.github.sidd6p.store.catalog.CatalogResponseCache;
+import com.github.sidd6p.store.dtos.BulkProductResponse;
+import com.github.sidd6p.store.dtos.CatalogImportReport;
+import com.github.sidd6p.store.dtos.ProductBatchResponse;
 import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.dtos.ProductFacetsResponse;
+import com.github.sidd6p.store.dtos.ProductIdsRequest;
+import com.github.sidd6p.store.dtos.ProductSliceResponse;
 import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.dtos.UpdateProductRequest;
+import com.github.sidd6p.store.services.CatalogImportService;
+import com.github.sidd6p.store.services.ProductBulkService;
 import com.github.sidd6p.store.services.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/products")
@@ -22,11 +45,89 @@ import java.util.List;
 @Tag(name = "Product", description = "Product management APIs")
 public class ProductController {
     private final ProductService productService;
+    private final ProductBulkService productBulkService;
+    private final CatalogImportService catalogImportService;
+    private final CatalogResponseCache catalogResponseCache;
 
+    // Served from pre-encoded bytes: the body is written straight to the response, gzip-compressed when the
+    // client accepts it, and answered with 304 when the client already holds the current ETag
     @GetMapping()
     @Operation(summary = "Get all products", description = "Retrieve a list of all products, optionally filtered by category.")
-    public List<ProductDto> getAllProducts(@RequestParam(required = false, name = "category") String category) {
-        return productService.getAllProducts(category);
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = ProductDto.class))))
+    public void getAllProducts(@RequestParam(required = false, name = "category") String category,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        var key = category == null || category.isEmpty() ? "*" : "category:" + category.toLowerCase(Locale.ROOT);
+        var cached = catalogResponseCache.get(key, () -> productService.getAllProducts(category));
+        writeCachedResponse(cached, request, response);
+    }
+
+    // Selected instead of getAllProducts whenever ?limit= is present
+    @GetMapping(params = "limit")
+    @Operation(summary = "Get products page", description = "Retrieve one page of products using cursor pagination. " +
+            "Pass the returned next_cursor as 'after' to fetch the following page. Sort by id, price or name.")
+    public ProductSliceResponse getProductSlice(@RequestParam(required = false, name = "category") String category,
+                                                @RequestParam(required = false, name = "after") String after,
+                                                @RequestParam(name = "limit") int limit,
+                                                @RequestParam(required = false, defaultValue = "id", name = "sort") String sort) {
+        return productService.getProductSlice(category, after, limit, sort);
+    }
+
+    // Selected whenever both price bounds are present, including over the ?limit= mapping above
+    @GetMapping(params = {"minPrice", "maxPrice"})
+    @Operation(summary = "Get products by price range", description = "Retrieve products priced between minPrice and maxPrice " +
+            "(inclusive), cheapest first, optionally filtered by category. Pass the returned next_cursor as 'after' for the next page.")
+    public ProductSliceResponse getProductsByPriceRange(@RequestParam(name = "minPrice") BigDecimal minPrice,
+                                                        @RequestParam(name = "maxPrice") BigDecimal maxPrice,
+                                                        @RequestParam(required = false, name = "category") String category,
+                                                        @RequestParam(required = false, name = "after") String after,
+                                                        @RequestParam(required = false, defaultValue = "20", name = "limit") int limit) {
+        return productService.getProductsByPriceRange(minPrice, maxPrice, category, after, limit);
+    }
+
+    // Selected whenever ?ids= is present; use POST /products/lookup when the id list is too long for a URL
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get products by IDs", description = "Retrieve many products in one call, e.g. ?ids=1,2,3. " +
+            "Products are returned in request order; ids without a product are listed in missing_ids.")
+    public ProductBatchResponse getProductsByIds(@RequestParam(name = "ids") List<Integer> ids) {
+        return productService.getProductsByIds(ids);
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Get products by IDs (POST)", description = "Same as GET /products?ids= with the ids in the request body, " +
+            "for lists too long for a URL.")
+    public ProductBatchResponse lookupProducts(@RequestBody ProductIdsRequest productIdsRequest) {
+        return productService.getProductsByIds(productIdsRequest.getIds());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export product catalog", description = "Stream every product as newline-delimited JSON (one product per line).")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = productService::exportProducts;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Search products by name. Results are ranked by how many query words they match.")
+    public List<ProductDto> searchProducts(@RequestParam(name = "q") String query,
+                                           @RequestParam(required = false, defaultValue = "20", name = "limit") int limit) {
+        return productService.searchProducts(query, limit);
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete product names", description = "Return product names starting with the given prefix, ignoring case and accents.")
+    public List<String> autocompleteProductNames(@RequestParam(name = "prefix") String prefix,
+                                                 @RequestParam(required = false, defaultValue = "10", name = "limit") int limit) {
+        return productService.autocompleteProductNames(prefix, limit);
+    }
+
+    @GetMapping("/facets")
+    @Operation(summary = "Get product facets", description = "Return the number of products per category and per price bucket.")
+    public ProductFacetsResponse getProductFacets() {
+        return productService.getProductFacets();
     }
 
     @GetMapping("/{id}")
@@ -48,6 +149,27 @@ public class ProductController {
         return ResponseEntity.created(uri).body(productDto);
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Create products in bulk", description = "Register many products in one request. " +
+            "Each item gets its own result; invalid items are reported as FAILED without affecting the others.")
+    public BulkProductResponse createProducts(@RequestBody List<RegisterProductRequest> registerProductRequests) {
+        return productBulkService.createProducts(registerProductRequests);
+    }
+
+    @PutMapping("/bulk")
+    @Operation(summary = "Update products in bulk", description = "Update many products in one request. " +
+            "Fields left out of an item keep their current values; unknown ids are reported as NOT_FOUND.")
+    public BulkProductResponse updateProducts(@RequestBody List<UpdateProductRequest> updateProductRequests) {
+        return productBulkService.updateProducts(updateProductRequests);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import product catalog", description = "Apply a full catalog CSV with the columns id,name,price,category. " +
+            "Only new or changed rows are written; the report counts unchanged, updated, inserted and failed rows.")
+    public CatalogImportReport importCatalog(InputStream csv) throws IOException {
+        return catalogImportService.importCsv(csv);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete product", description = "Remove a product from the system.")
     public ResponseEntity<Void> deleteProductById(@PathVariable("id") Integer id) {
@@ -66,4 +188,46 @@ public class ProductController {
                 .map(ResponseEntity::ok)
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
+
+    private static void writeCachedResponse(CatalogResponseCache.CachedResponse cached,
+                                            HttpServletRequest request,
+                                            HttpServletResponse response) throws IOException {
+        var acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        var etag = gzip ? cached.gzipEtag() : cached.etag();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        // Lets clients and proxies keep the body but revalidate it with If-None-Match on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        var ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && matchesEtag(ifNoneMatch, cached)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        var body = gzip ? cached.gzip() : cached.json();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, CatalogResponseCache.CachedResponse cached) {
+        for (var candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            // Either representation proves the client holds the current content
+            if (tag.equals("*") || tag.equals(cached.etag()) || tag.equals(cached.gzipEtag())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
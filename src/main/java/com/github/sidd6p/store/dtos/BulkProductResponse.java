@@ -0,0 +1,14 @@
+package com.github.sidd6p.store.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkProductResponse {
+    private int succeeded;
+    private int failed;
+    private List<BulkProductResult> results;
+}
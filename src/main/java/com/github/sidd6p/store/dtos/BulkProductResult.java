@@ -0,0 +1,23 @@
+package com.github.sidd6p.store.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkProductResult {
+    public enum Status {
+        CREATED,
+        UPDATED,
+        NOT_FOUND,
+        FAILED
+    }
+
+    // Position of the item in the request array
+    private int index;
+    private Integer id;
+    private Status status;
+    private String error;
+}
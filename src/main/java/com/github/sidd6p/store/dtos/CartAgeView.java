@@ -0,0 +1,17 @@
+package com.github.sidd6p.store.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A cart's id and creation date, read by the abandoned cart purge to page through old carts.
+ */
+@AllArgsConstructor
+@Getter
+public class CartAgeView {
+    private UUID cartId;
+    private LocalDate dateCreated;
+}
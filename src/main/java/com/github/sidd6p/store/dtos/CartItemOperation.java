@@ -0,0 +1,32 @@
+package com.github.sidd6p.store.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line change of a batch applied with PATCH /carts/{id}/items
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemOperation {
+    public enum Type {
+        // Adds quantity (default 1) to the line, creating it when the product is not in the cart
+        ADD,
+        // Replaces the quantity of a line already in the cart
+        SET_QUANTITY,
+        // Removes the line; a product that is not in the cart is ignored
+        REMOVE
+    }
+
+    @NotNull(message = "type is required")
+    private Type type;
+
+    @NotNull(message = "productId is required")
+    private Integer productId;
+
+    // Required for SET_QUANTITY, checked by CartService since it depends on the type
+    @Min(value = 1, message = "quantity must be at least 1")
+    private Integer quantity;
+}
@@ -0,0 +1,24 @@
+package com.github.sidd6p.store.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One row of a cart read straight from the database: the cart columns plus one line item.
+ * An empty cart yields a single row whose product fields are null.
+ */
+@AllArgsConstructor
+@Getter
+public class CartLineView {
+    private UUID cartId;
+    private LocalDate dateCreated;
+    private Integer productId;
+    private String productName;
+    private String categoryName;
+    private BigDecimal price;
+    private Integer quantity;
+}
@@ -0,0 +1,20 @@
+package com.github.sidd6p.store.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CatalogImportReport {
+    private long unchanged;
+    private long updated;
+    private long inserted;
+    private long failed;
+    @JsonProperty("categories_created")
+    private long categoriesCreated;
+    @JsonProperty("elapsed_ms")
+    private long elapsedMillis;
+    @JsonProperty("rows_per_second")
+    private long rowsPerSecond;
+}
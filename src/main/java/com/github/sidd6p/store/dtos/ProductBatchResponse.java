@@ -0,0 +1,18 @@
+package com.github.sidd6p.store.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductBatchResponse {
+    // In the order the ids were requested, each id at most once
+    private List<ProductDto> products;
+
+    // Requested ids that do not match any product
+    @JsonProperty("missing_ids")
+    private List<Integer> missingIds;
+}
@@ -0,0 +1,34 @@
+package com.github.sidd6p.store.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductFacetsResponse {
+    private int total;
+    private List<CategoryFacet> categories;
+
+    @JsonProperty("price_buckets")
+    private List<PriceBucketFacet> priceBuckets;
+
+    @Data
+    @AllArgsConstructor
+    public static class CategoryFacet {
+        private String name;
+        private int count;
+    }
+
+    // Covers prices from min (inclusive) to max (exclusive); max is null for the last bucket
+    @Data
+    @AllArgsConstructor
+    public static class PriceBucketFacet {
+        private BigDecimal min;
+        private BigDecimal max;
+        private int count;
+    }
+}
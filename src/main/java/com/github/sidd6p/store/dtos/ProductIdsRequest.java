@@ -0,0 +1,10 @@
+package com.github.sidd6p.store.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductIdsRequest {
+    private List<Integer> ids;
+}
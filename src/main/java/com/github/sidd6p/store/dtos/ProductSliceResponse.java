@@ -0,0 +1,20 @@
+package com.github.sidd6p.store.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductSliceResponse {
+    private List<ProductDto> content;
+
+    // Opaque token to pass back as ?after= to fetch the next page; null on the last page
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+    @JsonProperty("has_next")
+    private boolean hasNext;
+}
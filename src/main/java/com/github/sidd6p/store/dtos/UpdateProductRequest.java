@@ -1,4 +1,14 @@
 package com.github.sidd6p.store.dtos;
 
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// One item of a bulk update; null fields keep their current value, like PUT /products/{id}
+@Data
 public class UpdateProductRequest {
+    private Integer id;
+    private String name;
+    private BigDecimal price;
+    private Integer category_id;
 }
@@ -1,11 +1,15 @@
 package com.github.sidd6p.store.entities;
 
+import com.github.sidd6p.store.money.Money;
 
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -17,38 +21,54 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString
-@Table(name = "carts")
+// The date_created index serves the abandoned cart purge (AbandonedCartPurger)
+@Table(name = "carts", indexes = @Index(name = "carts_date_created_idx", columnList = "date_created"))
 public class Cart {
+    // Generated in Java when the cart is persisted, so it is known without reading the row back. Time-ordered,
+    // so new carts are appended to the primary key index; older carts keep their random ids.
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
 
-    // Database automatically sets the date_created with DEFAULT(curdate())
-    // so we prevent JPA from trying to insert/update this field
-    @Column(name = "date_created", insertable = false, updatable = false)
+    // Set in Java on persist (see onCreate) instead of relying on the column's DEFAULT(curdate()),
+    // which would need a re-read after the INSERT
+    @Column(name = "date_created", updatable = false)
     private LocalDate dateCreated;
 
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private Set<CartItem> cartItems = new LinkedHashSet<>();
 
+    // Product id -> line, so lookups by product do not scan every line. Not persisted; built on first use after
+    // load and kept in step by the methods below. Rebuilt when its size shows cartItems was changed directly.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private Map<Integer, CartItem> itemsByProductId;
+
+    // Sum of the line totals in minor units (cents), kept with the index above: computed when it is built and
+    // adjusted by every change made through this class or CartItem.setQuantity
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private long totalPriceMinor;
+
     // Business logic methods - Information Expert principle
 
     /**
      * Checks if the cart contains a product with the given ID
      */
     public boolean hasProduct(Integer productId) {
-        return cartItems.stream()
-                .anyMatch(item -> item.getProduct().getId().equals(productId));
+        return itemsByProductId().containsKey(productId);
     }
 
     /**
      * Finds a cart item by product ID
      */
     public Optional<CartItem> findCartItemByProductId(Integer productId) {
-        return cartItems.stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst();
+        return Optional.ofNullable(itemsByProductId().get(productId));
     }
 
     /**
@@ -57,7 +77,8 @@ public class Cart {
      * @throws IllegalStateException if product already exists in cart
      */
     public CartItem addProduct(Product product) {
-        if (hasProduct(product.getId())) {
+        var index = itemsByProductId();
+        if (index.containsKey(product.getId())) {
             throw new IllegalStateException("Product already exists in cart");
         }
 
@@ -66,6 +87,8 @@ public class Cart {
         cartItem.setProduct(product);
         cartItem.setCart(this);
         cartItems.add(cartItem);
+        index.put(product.getId(), cartItem);
+        totalPriceMinor += cartItem.getTotalPriceMinor();
 
         return cartItem;
     }
@@ -76,9 +99,9 @@ public class Cart {
      * @return true if the product was found and updated, false otherwise
      */
     public boolean updateProductQuantity(Integer productId, Integer newQuantity) {
-        Optional<CartItem> cartItem = findCartItemByProductId(productId);
-        if (cartItem.isPresent()) {
-            cartItem.get().setQuantity(newQuantity);
+        var cartItem = itemsByProductId().get(productId);
+        if (cartItem != null) {
+            cartItem.setQuantity(newQuantity);
             return true;
         }
         return false;
@@ -91,9 +114,10 @@ public class Cart {
      * @return true if the product was found and removed, false otherwise
      */
     public boolean removeProduct(Integer productId) {
-        Optional<CartItem> cartItemToRemove = findCartItemByProductId(productId);
-        if (cartItemToRemove.isPresent()) {
-            cartItems.remove(cartItemToRemove.get());
+        var cartItemToRemove = itemsByProductId().remove(productId);
+        if (cartItemToRemove != null) {
+            cartItems.remove(cartItemToRemove);
+            totalPriceMinor -= cartItemToRemove.getTotalPriceMinor();
             return true;
         }
         return false;
@@ -115,7 +139,59 @@ public class Cart {
                 .sum();
     }
 
+    /**
+     * Total price of all lines in minor units (cents)
+     */
+    public long getTotalPriceMinor() {
+        itemsByProductId();
+        return totalPriceMinor;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return Money.fromMinorUnits(getTotalPriceMinor());
+    }
+
     public void clearCart() {
         cartItems.clear();
+        itemsByProductId = null;
+    }
+
+    public void setCartItems(Set<CartItem> cartItems) {
+        this.cartItems = cartItems;
+        this.itemsByProductId = null;
+    }
+
+    @PrePersist
+    void onCreate() {
+        if (dateCreated == null) {
+            dateCreated = LocalDate.now();
+        }
+    }
+
+    // Hibernate fills cartItems without going through the methods above
+    @PostLoad
+    void resetItemIndex() {
+        itemsByProductId = null;
+    }
+
+    // Called by CartItem.setQuantity; while the index is not built the total is recomputed with it anyway
+    void lineTotalChanged(long delta) {
+        if (itemsByProductId != null) {
+            totalPriceMinor += delta;
+        }
+    }
+
+    private Map<Integer, CartItem> itemsByProductId() {
+        if (itemsByProductId == null || itemsByProductId.size() != cartItems.size()) {
+            var index = new HashMap<Integer, CartItem>(Math.max(16, cartItems.size() * 2));
+            long total = 0;
+            for (var item : cartItems) {
+                index.put(item.getProduct().getId(), item);
+                total += item.getTotalPriceMinor();
+            }
+            itemsByProductId = index;
+            totalPriceMinor = total;
+        }
+        return itemsByProductId;
     }
 }
@@ -1,15 +1,20 @@
 package com.github.sidd6p.store.entities;
 
+import com.github.sidd6p.store.money.Money;
+
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
+
 @Getter
 @Setter
 @Entity
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "cart_items")
+// Same constraint as the MySQL schema; CartItemJdbcRepository's upsert relies on it
+@Table(name = "cart_items", uniqueConstraints = @UniqueConstraint(name = "unique_cart_product", columnNames = {"cart_id", "product_id"}))
 public class CartItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,5 +30,37 @@ public class CartItem {
     private Product product;
 
     private int quantity;
+
+    // Product price in minor units (cents), taken from the product the first time the line is priced.
+    // Not persisted; -1 until then.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Builder.Default
+    private long unitPriceMinor = -1;
+
+    /**
+     * Changes the quantity and keeps the owning cart's total in step.
+     */
+    public void setQuantity(int quantity) {
+        if (cart != null && quantity != this.quantity) {
+            long before = getTotalPriceMinor();
+            this.quantity = quantity;
+            cart.lineTotalChanged(getTotalPriceMinor() - before);
+        } else {
+            this.quantity = quantity;
+        }
+    }
+
+    public long getTotalPriceMinor() {
+        if (unitPriceMinor < 0) {
+            unitPriceMinor = Money.toMinorUnits(product.getPrice());
+        }
+        return unitPriceMinor * quantity;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return Money.fromMinorUnits(getTotalPriceMinor());
+    }
 }
 
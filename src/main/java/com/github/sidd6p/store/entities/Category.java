@@ -1,12 +1,16 @@
 package com.github.sidd6p.store.entities;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.github.sidd6p.store.catalog.CategoryRegistry;
+import com.github.sidd6p.store.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.Builder;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -18,6 +22,8 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.CATEGORIES_REGION)
+@EntityListeners(CategoryRegistry.EntityListener.class)
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,8 +1,11 @@
 package com.github.sidd6p.store.entities;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.github.sidd6p.store.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -13,6 +16,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "products")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.PRODUCTS_REGION)
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
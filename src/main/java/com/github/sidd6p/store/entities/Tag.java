@@ -1,10 +1,13 @@
 package com.github.sidd6p.store.entities;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.github.sidd6p.store.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -14,6 +17,7 @@ import java.util.Set;
 @Entity
 @NoArgsConstructor
 @Table(name = "tags")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.TAGS_REGION)
 public class Tag {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
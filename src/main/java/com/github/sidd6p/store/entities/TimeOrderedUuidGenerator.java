@@ -0,0 +1,45 @@
+package com.github.sidd6p.store.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID version 7 (RFC 9562) ids: a 48-bit Unix millisecond timestamp, then a 12-bit counter, then 62 random bits.
+ * <p>
+ * Ids created later sort after earlier ones, also as the big-endian bytes of a BINARY(16) column, so inserts
+ * append to the end of the primary key index instead of landing on random pages. The counter keeps ids from
+ * one JVM strictly increasing within a millisecond and across clock steps backwards. The random bits come
+ * from SecureRandom, because a cart id is all a client needs to read or change the cart.
+ * <p>
+ * The ids are ordinary UUIDs, so they live in the same column as the random (version 4) ids created before.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // Unix millis << 12 | counter of the last id handed out
+    private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+    public static UUID nextUuid() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST_STAMP.updateAndGet(last -> Math.max(last + 1, now));
+        long mostSignificant = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSignificant = RANDOM.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return nextUuid();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -7,6 +7,7 @@ import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring", uses = {ProductMapper.class})
 public interface CartItemMapper {
-    @Mapping(target = "totalPrice", expression = "java(cartItem.getProduct().getPrice().multiply(java.math.BigDecimal.valueOf(cartItem.getQuantity())))")
+    // Read from the line, which derives it from its quantity and cached unit price
+    @Mapping(target = "totalPrice", source = "totalPrice")
     CartItemDto toDto(CartItem cartItem);
 }
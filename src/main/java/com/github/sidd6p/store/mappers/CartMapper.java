@@ -1,12 +1,47 @@
 package com.github.sidd6p.store.mappers;
 
 import com.github.sidd6p.store.dtos.CartDto;
+import com.github.sidd6p.store.dtos.CartItemDto;
+import com.github.sidd6p.store.dtos.CartLineView;
+import com.github.sidd6p.store.dtos.ProductDto;
 import com.github.sidd6p.store.entities.Cart;
+import com.github.sidd6p.store.money.Money;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 @Mapper(componentModel = "spring", uses = {CartItemMapper.class})
 public interface CartMapper {
-    @Mapping(target = "price", expression = "java(cart.getCartItems().stream().map(item -> item.getProduct().getPrice().multiply(java.math.BigDecimal.valueOf(item.getQuantity()))).reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add))")
+    // The total is kept up to date by Cart itself
+    @Mapping(target = "price", source = "totalPrice")
     CartDto toDto(Cart cart);
+
+    /**
+     * Builds a CartDto from the rows of CartRepository.findLinesByCartId, which must not be empty.
+     */
+    default CartDto toDto(List<CartLineView> lines) {
+        var first = lines.get(0);
+        var cartDto = new CartDto();
+        cartDto.setId(first.getCartId());
+        cartDto.setDateCreated(first.getDateCreated());
+
+        // Summed in minor units, as Cart does, so only the results are BigDecimals
+        long totalMinor = 0;
+        for (var line : lines) {
+            if (line.getProductId() == null) {
+                continue;
+            }
+            long lineMinor = Money.toMinorUnits(line.getPrice()) * line.getQuantity();
+            var item = new CartItemDto();
+            item.setProduct(new ProductDto(line.getProductId(), line.getProductName(), line.getCategoryName(), line.getPrice()));
+            item.setQuantity(line.getQuantity());
+            item.setTotalPrice(Money.fromMinorUnits(lineMinor));
+            cartDto.getCartItems().add(item);
+            totalMinor += lineMinor;
+        }
+        cartDto.setPrice(Money.fromMinorUnits(totalMinor));
+        return cartDto;
+    }
 }
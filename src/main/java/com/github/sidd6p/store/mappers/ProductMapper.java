@@ -1,10 +1,10 @@
 package com.github.sidd6p.store.mappers;
 
+import com.github.sidd6p.store.catalog.CategoryRegistry;
 import com.github.sidd6p.store.dtos.ProductDto;
 import com.github.sidd6p.store.dtos.RegisterProductRequest;
 import com.github.sidd6p.store.entities.Category;
 import com.github.sidd6p.store.entities.Product;
-import com.github.sidd6p.store.repositories.CategoryRepository;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -14,9 +14,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 public abstract class ProductMapper {
 
     @Autowired
-    protected CategoryRepository categoryRepository;
+    protected CategoryRegistry categoryRegistry;
 
-    @Mapping(source = "category.name", target = "categoryName")
+    // The name comes from the in-memory registry, so a lazy category proxy is never loaded just to read it
+    @Mapping(source = "category", target = "categoryName", qualifiedByName = "categoryName")
     public abstract ProductDto toDto(Product product);
 
     @Mapping(target = "id", ignore = true)
@@ -29,8 +30,8 @@ public abstract class ProductMapper {
      * The @Mapping annotation uses 'qualifiedByName = "mapCategory"' to specify that the 'category_id' field from RegisterProductRequest
      * should be mapped to the 'category' field in Product using the custom mapCategory method below.
      *
-     * When MapStruct generates the implementation, it will call mapCategory(category_id) to fetch the Category entity from the database
-     * using CategoryRepository. This enables mapping an ID to a full entity, which is not possible with default MapStruct logic.
+     * When MapStruct generates the implementation, it will call mapCategory(category_id) to resolve the Category entity
+     * through CategoryRegistry. This enables mapping an ID to a full entity, which is not possible with default MapStruct logic.
      *
      * Flow:
      *   [RegisterProductRequest.category_id]
@@ -39,7 +40,7 @@ public abstract class ProductMapper {
      *   ProductMapper.mapCategory(category_id)
      *            |
      *            v
-     *   [Category entity fetched from DB]
+     *   [Category reference from CategoryRegistry (no SELECT)]
      *            |
      *            v
      *   [Product.category]
@@ -56,7 +57,12 @@ public abstract class ProductMapper {
         if (categoryId == null) {
             return null;
         }
-        return categoryRepository.findById(categoryId).orElse(null);
+        return categoryRegistry.reference(categoryId).orElse(null);
+    }
+
+    @Named("categoryName")
+    protected String categoryName(Category category) {
+        return categoryRegistry.nameOf(category);
     }
 }
 
@@ -66,6 +72,6 @@ public abstract class ProductMapper {
  * ProductMapper uses custom mapping logic (the mapCategory method) that cannot be handled by MapStruct's default interface-based generation.
  * By making it an abstract class, you can provide method implementations (like mapCategory) that MapStruct will use in the generated code.
  *
- * If ProductMapper were an interface, you could not inject dependencies (like CategoryRepository) or provide custom mapping methods directly.
+ * If ProductMapper were an interface, you could not inject dependencies (like CategoryRegistry) or provide custom mapping methods directly.
  * Abstract classes allow for dependency injection and custom logic, which is necessary for advanced mapping scenarios.
  */
@@ -0,0 +1,123 @@
+package com.github.sidd6p.store.membership;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compact probabilistic set of 128-bit keys answering "definitely absent" or "possibly present".
+ * <p>
+ * Each key sets {@code k} bits chosen by double hashing (bit i = h1 + i * h2), sized from the expected number of
+ * keys and the false-positive rate: about 9.6 bits per key at 1%, so a million ids take 1.2 MB. When more keys
+ * than expected are added, a new stage twice as large with half the false-positive rate is appended, so the
+ * overall rate stays below the configured one however far the set grows.
+ * <p>
+ * Keys cannot be removed. A key that was deleted from the database stays "possibly present", which only costs
+ * the lookup the filter would otherwise have saved. Lookups are lock-free; adds only lock to pick the stage.
+ */
+public final class BloomFilter {
+
+    private static final class Stage {
+        final AtomicLongArray words;
+        final long bits;
+        final int hashes;
+        final long capacity;
+        final double falsePositiveRate;
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = Math.max(1, capacity);
+            this.falsePositiveRate = falsePositiveRate;
+            // Optimal sizing: m = -n ln p / (ln 2)^2 and k = m / n * ln 2
+            long requestedBits = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = Math.max(64, (requestedBits + 63) / 64 * 64);
+            this.hashes = Math.max(1, (int) Math.round((double) bits / this.capacity * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact(bits / 64));
+        }
+
+        void add(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current = words.get(word);
+                while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                    current = words.get(word);
+                }
+            }
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private volatile Stage[] stages;
+    // Keys added to the last stage, used to decide when it is full
+    private long lastStageCount;
+
+    /**
+     * @param expectedKeys      number of keys the first stage is sized for
+     * @param falsePositiveRate upper bound for the chance that an absent key is reported as possibly present
+     */
+    public BloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1 (exclusive)");
+        }
+        // Stage rates p/2, p/4, ... sum to at most p
+        this.stages = new Stage[]{new Stage(expectedKeys, falsePositiveRate / 2)};
+    }
+
+    public void add(long mostSignificantBits, long leastSignificantBits) {
+        long h1 = mix(mostSignificantBits ^ mix(leastSignificantBits));
+        long h2 = mix(h1 ^ leastSignificantBits) | 1;
+        stageForAdd().add(h1, h2);
+    }
+
+    public boolean mightContain(long mostSignificantBits, long leastSignificantBits) {
+        long h1 = mix(mostSignificantBits ^ mix(leastSignificantBits));
+        long h2 = mix(h1 ^ leastSignificantBits) | 1;
+        for (var stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Approximate memory held by the bit arrays, in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (var stage : stages) {
+            bytes += stage.bits / 8;
+        }
+        return bytes;
+    }
+
+    private synchronized Stage stageForAdd() {
+        var current = stages;
+        var last = current[current.length - 1];
+        if (lastStageCount >= last.capacity) {
+            var grown = new Stage[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            last = new Stage(last.capacity * 2, last.falsePositiveRate / 2);
+            grown[current.length] = last;
+            stages = grown;
+            lastStageCount = 0;
+        }
+        lastStageCount++;
+        return last;
+    }
+
+    // Finalizer of SplitMix64: spreads sequential ids over the whole bit array
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.sidd6p.store.membership;
+
+import com.github.sidd6p.store.repositories.CartRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bloom filter over existing cart ids, used to answer lookups of unknown carts without a query.
+ * <p>
+ * Built from the carts table at startup; CartService adds every new cart before its transaction commits,
+ * so a cart is never reported missing once it is visible in the database. Until the first build every id
+ * is reported as possibly present.
+ */
+@Component
+@Slf4j
+public class CartIdFilter {
+    private final CartRepository cartRepository;
+    private final long expectedCarts;
+    private final double falsePositiveRate;
+    private volatile BloomFilter filter;
+    // Carts created before the first build, replayed into it in case the scan ran before they committed.
+    // Guarded by this.
+    private final List<UUID> addedBeforeBuild = new ArrayList<>();
+
+    public CartIdFilter(CartRepository cartRepository,
+                        @Value("${membership.expectedCarts:100000}") long expectedCarts,
+                        @Value("${membership.falsePositiveRate:0.01}") double falsePositiveRate) {
+        this.cartRepository = cartRepository;
+        this.expectedCarts = expectedCarts;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    // Holding the lock while scanning makes concurrent add() calls wait, so none of them is lost by the swap.
+    // Not read-only, so the ids come from the primary: a cart missing from a lagging replica would be rejected.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void rebuild() {
+        long count = cartRepository.count();
+        var rebuilt = new BloomFilter(Math.max(expectedCarts, count * 2), falsePositiveRate);
+        try (var ids = cartRepository.streamAllIds()) {
+            ids.forEach(id -> rebuilt.add(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+        }
+        addedBeforeBuild.forEach(id -> rebuilt.add(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+        addedBeforeBuild.clear();
+        filter = rebuilt;
+        log.info("Built cart id filter for {} carts ({} bytes)", count, rebuilt.sizeInBytes());
+    }
+
+    /**
+     * False only when no cart with this id exists.
+     */
+    public boolean mightExist(UUID cartId) {
+        var current = filter;
+        return cartId == null || current == null
+                || current.mightContain(cartId.getMostSignificantBits(), cartId.getLeastSignificantBits());
+    }
+
+    public synchronized void add(UUID cartId) {
+        if (filter != null) {
+            filter.add(cartId.getMostSignificantBits(), cartId.getLeastSignificantBits());
+        } else {
+            addedBeforeBuild.add(cartId);
+        }
+    }
+}
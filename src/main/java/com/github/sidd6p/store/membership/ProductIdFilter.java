@@ -0,0 +1,76 @@
+package com.github.sidd6p.store.membership;
+
+import com.github.sidd6p.store.catalog.ProductIndex;
+import com.github.sidd6p.store.dtos.ProductDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bloom filter over existing product ids, used to answer lookups of unknown ids without a query.
+ * <p>
+ * Built from the catalog snapshot at startup and fed every committed product write by
+ * {@link com.github.sidd6p.store.catalog.ProductIndexMaintainer}. Until the first build every id is
+ * reported as possibly present, so nothing is rejected while the application is starting.
+ * <p>
+ * Services creating products also {@link #add} the new ids before their transaction commits. Otherwise a
+ * lookup arriving between the commit and the index update would be rejected, and cached as missing.
+ * Ids of writes that roll back stay in the filter as false positives.
+ */
+@Component
+@Slf4j
+public class ProductIdFilter implements ProductIndex {
+    private final long expectedProducts;
+    private final double falsePositiveRate;
+    private volatile BloomFilter filter;
+    // Products saved before the first build, replayed into it since the snapshot may predate them.
+    // Guarded by this.
+    private final List<Integer> savedBeforeBuild = new ArrayList<>();
+
+    public ProductIdFilter(@Value("${membership.expectedProducts:100000}") long expectedProducts,
+                           @Value("${membership.falsePositiveRate:0.01}") double falsePositiveRate) {
+        this.expectedProducts = expectedProducts;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * False only when no product with this id exists.
+     */
+    public boolean mightExist(Integer productId) {
+        var current = filter;
+        return productId == null || current == null || current.mightContain(0, productId);
+    }
+
+    @Override
+    public synchronized void rebuild(Collection<ProductDto> products) {
+        // Leave room for growth so the first stage is not full right after startup
+        var rebuilt = new BloomFilter(Math.max(expectedProducts, products.size() * 2L), falsePositiveRate);
+        products.forEach(product -> rebuilt.add(0, product.getId()));
+        savedBeforeBuild.forEach(id -> rebuilt.add(0, id));
+        savedBeforeBuild.clear();
+        filter = rebuilt;
+        log.info("Built product id filter for {} products ({} bytes)", products.size(), rebuilt.sizeInBytes());
+    }
+
+    public synchronized void add(Integer productId) {
+        if (filter != null) {
+            filter.add(0, productId);
+        } else {
+            savedBeforeBuild.add(productId);
+        }
+    }
+
+    @Override
+    public void upsert(ProductDto product) {
+        add(product.getId());
+    }
+
+    @Override
+    public void remove(Integer productId) {
+        // Bloom filters cannot forget keys; lookups of the deleted id fall through to the database
+    }
+}
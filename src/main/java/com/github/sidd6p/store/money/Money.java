@@ -0,0 +1,40 @@
+package com.github.sidd6p.store.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between decimal amounts and long minor units (cents), so that prices can be summed and
+ * compared as plain integers and turned back into a BigDecimal only for the result.
+ */
+public final class Money {
+    private static final int SCALE = 2;
+
+    /**
+     * Largest amount that fits in minor units: {@link Long#MAX_VALUE} cents.
+     */
+    public static final BigDecimal MAX_AMOUNT = fromMinorUnits(Long.MAX_VALUE);
+
+    private Money() {
+    }
+
+    /**
+     * Rounds to the nearest cent, half up.
+     *
+     * @throws ArithmeticException if the amount is above {@link #MAX_AMOUNT}
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return toMinorUnits(amount, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount is above {@link #MAX_AMOUNT}
+     */
+    public static long toMinorUnits(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.movePointRight(SCALE).setScale(0, roundingMode).longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
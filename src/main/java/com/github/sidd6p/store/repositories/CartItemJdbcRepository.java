@@ -0,0 +1,139 @@
+package com.github.sidd6p.store.repositories;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plain JDBC writes for cart lines that do not need the cart aggregate in memory.
+ * <p>
+ * Adding a product relies on the {@code unique_cart_product (cart_id, product_id)} key: a single upsert
+ * either inserts the line or adds to its quantity, so concurrent adds of the same product cannot collide.
+ * MySQL gets {@code INSERT ... ON DUPLICATE KEY UPDATE}; other databases (H2 in tests) get a standard
+ * {@code MERGE}. These methods bypass the persistence context, so callers must not hold the cart's items
+ * in memory in the same transaction.
+ */
+@Repository
+public class CartItemJdbcRepository {
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO cart_items (cart_id, product_id, quantity) VALUES (?, ?, ?) " +
+                    // The added quantity is bound twice rather than read back with VALUES(), deprecated since MySQL 8.0.20
+                    "ON DUPLICATE KEY UPDATE quantity = quantity + ?";
+    private static final String MERGE_UPSERT =
+            "MERGE INTO cart_items t " +
+                    "USING (SELECT CAST(? AS UUID) AS cart_id, CAST(? AS INT) AS product_id, CAST(? AS INT) AS quantity) s " +
+                    "ON t.cart_id = s.cart_id AND t.product_id = s.product_id " +
+                    "WHEN MATCHED THEN UPDATE SET quantity = t.quantity + s.quantity " +
+                    "WHEN NOT MATCHED THEN INSERT (cart_id, product_id, quantity) VALUES (s.cart_id, s.product_id, s.quantity)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean mysql;
+
+    public CartItemJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        var product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        this.mysql = product != null && product.toLowerCase(Locale.ROOT).contains("mysql");
+    }
+
+    /**
+     * Inserts the line with the given quantity, or adds the quantity to the existing line, and returns the
+     * line's quantity afterwards.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the cart or product does not exist
+     */
+    public int addQuantity(UUID cartId, int productId, int quantity) {
+        try {
+            upsert(cartId, productId, quantity);
+        } catch (DuplicateKeyException e) {
+            // MERGE is not atomic on every database: two first adds may both take the insert branch.
+            // The row exists now, so a second attempt takes the update branch.
+            upsert(cartId, productId, quantity);
+        }
+        // The upsert holds the row lock until commit, so this reads this transaction's result
+        var total = jdbcTemplate.queryForObject(
+                "SELECT quantity FROM cart_items WHERE cart_id = ? AND product_id = ?",
+                Integer.class, cartIdParameter(cartId), productId);
+        return total != null ? total : quantity;
+    }
+
+    /**
+     * Inserts cart rows, one JDBC batch for all of them.
+     */
+    public void insertCarts(Map<UUID, LocalDate> datesCreated) {
+        if (datesCreated.isEmpty()) {
+            return;
+        }
+        var rows = new ArrayList<Object[]>(datesCreated.size());
+        datesCreated.forEach((cartId, dateCreated) -> rows.add(new Object[]{cartIdParameter(cartId), Date.valueOf(dateCreated)}));
+        jdbcTemplate.batchUpdate("INSERT INTO carts (id, date_created) VALUES (?, ?)", rows);
+    }
+
+    /**
+     * Replaces all lines of each given cart with the given product id -> quantity entries, with one JDBC
+     * batch of deletes and one of inserts. A line whose product no longer exists is skipped rather than
+     * failing the batch on the foreign key; the skipped product ids are returned by cart.
+     */
+    public Map<UUID, List<Integer>> replaceLines(Map<UUID, Map<Integer, Integer>> linesByCart) {
+        if (linesByCart.isEmpty()) {
+            return Map.of();
+        }
+        var carts = new ArrayList<Object[]>(linesByCart.size());
+        var lines = new ArrayList<Object[]>();
+        var lineKeys = new ArrayList<Map.Entry<UUID, Integer>>();
+        linesByCart.forEach((cartId, quantities) -> {
+            var id = cartIdParameter(cartId);
+            carts.add(new Object[]{id});
+            quantities.forEach((productId, quantity) -> {
+                lines.add(new Object[]{id, quantity, productId});
+                lineKeys.add(Map.entry(cartId, productId));
+            });
+        });
+        jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE cart_id = ?", carts);
+        if (lines.isEmpty()) {
+            return Map.of();
+        }
+        // Selecting the product row makes a deleted product insert nothing instead of violating the foreign key
+        var counts = jdbcTemplate.batchUpdate("INSERT INTO cart_items (cart_id, product_id, quantity) " +
+                "SELECT ?, id, ? FROM products WHERE id = ?", lines);
+        var skipped = new LinkedHashMap<UUID, List<Integer>>();
+        for (int i = 0; i < counts.length; i++) {
+            // Drivers that report no per-statement counts return SUCCESS_NO_INFO, never 0
+            if (counts[i] == 0) {
+                var line = lineKeys.get(i);
+                skipped.computeIfAbsent(line.getKey(), cartId -> new ArrayList<>()).add(line.getValue());
+            }
+        }
+        return skipped;
+    }
+
+    private void upsert(UUID cartId, int productId, int quantity) {
+        if (mysql) {
+            jdbcTemplate.update(MYSQL_UPSERT, cartIdParameter(cartId), productId, quantity, quantity);
+        } else {
+            jdbcTemplate.update(MERGE_UPSERT, cartIdParameter(cartId), productId, quantity);
+        }
+    }
+
+    // carts.id is BINARY(16) on MySQL (the same byte order Hibernate uses) and a native UUID elsewhere
+    private Object cartIdParameter(UUID cartId) {
+        if (!mysql) {
+            return cartId;
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(cartId.getMostSignificantBits())
+                .putLong(cartId.getLeastSignificantBits())
+                .array();
+    }
+}
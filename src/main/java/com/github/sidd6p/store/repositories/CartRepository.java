@@ -1,9 +1,74 @@
 package com.github.sidd6p.store.repositories;
 
+import com.github.sidd6p.store.dtos.CartAgeView;
+import com.github.sidd6p.store.dtos.CartLineView;
 import com.github.sidd6p.store.entities.Cart;
+import com.github.sidd6p.store.entities.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CartRepository extends JpaRepository<Cart, UUID> {
+
+    // Reads a whole cart (header, items, products and category names) in one query without creating entities.
+    // Returns no rows when the cart does not exist and one row with null item columns when it is empty.
+    @Query("SELECT new com.github.sidd6p.store.dtos.CartLineView(c.id, c.dateCreated, p.id, p.name, cat.name, p.price, ci.quantity) " +
+            "FROM Cart c LEFT JOIN c.cartItems ci LEFT JOIN ci.product p LEFT JOIN p.category cat " +
+            "WHERE c.id = :cartId")
+    List<CartLineView> findLinesByCartId(@Param("cartId") UUID cartId);
+
+    // The whole aggregate (cart, items, their products and categories) as managed entities in one query,
+    // for callers that change the cart or need its entities
+    @EntityGraph(attributePaths = {"cartItems", "cartItems.product", "cartItems.product.category"})
+    @Query("SELECT c FROM Cart c WHERE c.id = :cartId")
+    Optional<Cart> findWithItemsById(@Param("cartId") UUID cartId);
+
+    // Ids only, read through a cursor so building the cart id filter never loads whole carts
+    @Query("SELECT c.id FROM Cart c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UUID> streamAllIds();
+
+    // Carts created before the cutoff with no pending order, in (date_created, id) order so the purge can page
+    // through them with the date_created index. The second form continues after the last cart of a chunk.
+    @Query("SELECT new com.github.sidd6p.store.dtos.CartAgeView(c.id, c.dateCreated) FROM Cart c WHERE c.dateCreated < :cutoff " +
+            "AND NOT EXISTS (SELECT 1 FROM Order o WHERE o.cartId = c.id AND o.status = :pending) " +
+            "ORDER BY c.dateCreated, c.id")
+    List<CartAgeView> findAbandoned(@Param("cutoff") LocalDate cutoff, @Param("pending") OrderStatus pending, Limit limit);
+
+    @Query("SELECT new com.github.sidd6p.store.dtos.CartAgeView(c.id, c.dateCreated) FROM Cart c WHERE c.dateCreated < :cutoff " +
+            "AND (c.dateCreated > :afterDate OR (c.dateCreated = :afterDate AND c.id > :afterId)) " +
+            "AND NOT EXISTS (SELECT 1 FROM Order o WHERE o.cartId = c.id AND o.status = :pending) " +
+            "ORDER BY c.dateCreated, c.id")
+    List<CartAgeView> findAbandonedAfter(@Param("cutoff") LocalDate cutoff, @Param("pending") OrderStatus pending,
+                                         @Param("afterDate") LocalDate afterDate, @Param("afterId") UUID afterId,
+                                         Limit limit);
+
+    // The purge's deletes repeat the pending order check, so a cart checked out since it was selected is kept
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN :cartIds " +
+            "AND NOT EXISTS (SELECT 1 FROM Order o WHERE o.cartId = ci.cart.id AND o.status = :pending)")
+    int deleteItemsOfAbandoned(@Param("cartIds") Collection<UUID> cartIds, @Param("pending") OrderStatus pending);
+
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :cartIds " +
+            "AND NOT EXISTS (SELECT 1 FROM Order o WHERE o.cartId = c.id AND o.status = :pending)")
+    int deleteAbandoned(@Param("cartIds") Collection<UUID> cartIds, @Param("pending") OrderStatus pending);
+
+    // Bulk delete, bypassing the persistence context: callers must not hold the cart's items in memory
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
+    int deleteItemsByCartId(@Param("cartId") UUID cartId);
 }
@@ -0,0 +1,172 @@
+package com.github.sidd6p.store.repositories;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC batch writes for the products table.
+ * <p>
+ * Product ids use IDENTITY generation, which makes Hibernate insert rows one statement at a time.
+ * These methods send a whole list as a single JDBC batch instead; with rewriteBatchedStatements=true
+ * MySQL Connector/J turns it into multi-row statements. They bypass the persistence context, so callers
+ * are responsible for keeping caches and in-memory indexes in sync.
+ */
+@Repository
+@AllArgsConstructor
+public class ProductJdbcRepository {
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ProductRow(Integer id, String name, BigDecimal price, Integer categoryId) {
+    }
+
+    /**
+     * Inserts all rows in one batch and returns the generated ids in the same order.
+     */
+    public List<Integer> insertAll(List<ProductRow> rows) {
+        var keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(
+                        "INSERT INTO products (name, price, category_id) VALUES (?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        var row = rows.get(i);
+                        ps.setString(1, row.name());
+                        ps.setBigDecimal(2, row.price());
+                        setNullableInt(ps, 3, row.categoryId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).intValue())
+                .toList();
+    }
+
+    /**
+     * Inserts all rows in one batch, keeping the ids given in the rows.
+     */
+    public void insertAllWithIds(List<ProductRow> rows) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO products (id, name, price, category_id) VALUES (?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        var row = rows.get(i);
+                        ps.setInt(1, row.id());
+                        ps.setString(2, row.name());
+                        ps.setBigDecimal(3, row.price());
+                        setNullableInt(ps, 4, row.categoryId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                });
+    }
+
+    /**
+     * Streams every product row to the consumer without loading the table into memory.
+     */
+    public void forEachRow(Consumer<ProductRow> consumer) {
+        jdbcTemplate.query(
+                connection -> {
+                    var ps = connection.prepareStatement("SELECT id, name, price, category_id FROM products",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(FETCH_SIZE);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(new ProductRow(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getBigDecimal("price"),
+                        rs.getObject("category_id", Integer.class))));
+    }
+
+    /**
+     * Number of decimal places the price column keeps; the database rounds prices with more.
+     */
+    public int priceScale() {
+        return jdbcTemplate.query("SELECT price FROM products WHERE 1 = 0",
+                (ResultSetExtractor<Integer>) rs -> rs.getMetaData().getScale(1));
+    }
+
+    /**
+     * Updates all rows in one batch. Null fields keep their current value.
+     *
+     * @return the number of affected rows for each input row (0 when the id does not exist)
+     */
+    public int[] updateAll(List<ProductRow> rows) {
+        return jdbcTemplate.batchUpdate(
+                "UPDATE products SET name = COALESCE(?, name), price = COALESCE(?, price), " +
+                        "category_id = COALESCE(?, category_id) WHERE id = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        var row = rows.get(i);
+                        ps.setString(1, row.name());
+                        ps.setBigDecimal(2, row.price());
+                        setNullableInt(ps, 3, row.categoryId());
+                        ps.setInt(4, row.id());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                });
+    }
+
+    /**
+     * Overwrites name, price and category of all rows in one batch, including clearing the category when it is null.
+     */
+    public int[] replaceAll(List<ProductRow> rows) {
+        return jdbcTemplate.batchUpdate(
+                "UPDATE products SET name = ?, price = ?, category_id = ? WHERE id = ?",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        var row = rows.get(i);
+                        ps.setString(1, row.name());
+                        ps.setBigDecimal(2, row.price());
+                        setNullableInt(ps, 3, row.categoryId());
+                        ps.setInt(4, row.id());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                });
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.github.sidd6p.store.repositories;
 
+import com.github.sidd6p.store.dtos.ProductDto;
 import com.github.sidd6p.store.entities.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
@@ -32,8 +40,65 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
     @Override
     List<Product> findAll();
 
+    // Loads a set of products and their categories in one IN query
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Integer> ids);
+
     // Method to find products by category name with eager loading
     @Query("SELECT p FROM Product p JOIN FETCH p.category c WHERE c.name = :categoryName")
     List<Product> findByCategoryNameWithCategory(@Param("categoryName") String categoryName);
 
-}
\ No newline at end of file
+    // Constructor-expression projections: rows go straight into ProductDto, so no Product or Category
+    // entities are created, snapshotted for dirty checking or mapped afterwards
+    @Query("SELECT new com.github.sidd6p.store.dtos.ProductDto(p.id, p.name, c.name, p.price) " +
+            "FROM Product p LEFT JOIN p.category c")
+    List<ProductDto> findAllDtos();
+
+    @Query("SELECT new com.github.sidd6p.store.dtos.ProductDto(p.id, p.name, c.name, p.price) " +
+            "FROM Product p JOIN p.category c WHERE c.id = :categoryId")
+    List<ProductDto> findDtosByCategoryId(@Param("categoryId") Integer categoryId);
+
+    @Query("SELECT new com.github.sidd6p.store.dtos.ProductDto(p.id, p.name, c.name, p.price) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<ProductDto> findDtosByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Keyset (seek) queries used by cursor pagination.
+    // Each query continues strictly after the (sort key, id) pair of the last row of the previous page,
+    // so MySQL can range-scan the matching index instead of skipping OFFSET rows.
+    // Returning a Slice makes Spring Data fetch limit + 1 rows to detect the next page and never run a COUNT(*).
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category c " +
+            "WHERE p.id > :afterId " +
+            "AND (:categoryName IS NULL OR c.name = :categoryName) " +
+            "ORDER BY p.id")
+    Slice<Product> findPageAfterId(@Param("afterId") Integer afterId,
+                                   @Param("categoryName") String categoryName,
+                                   Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category c " +
+            "WHERE (p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId)) " +
+            "AND (:categoryName IS NULL OR c.name = :categoryName) " +
+            "ORDER BY p.price, p.id")
+    Slice<Product> findPageAfterPrice(@Param("afterPrice") BigDecimal afterPrice,
+                                      @Param("afterId") Integer afterId,
+                                      @Param("categoryName") String categoryName,
+                                      Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category c " +
+            "WHERE (p.name > :afterName OR (p.name = :afterName AND p.id > :afterId)) " +
+            "AND (:categoryName IS NULL OR c.name = :categoryName) " +
+            "ORDER BY p.name, p.id")
+    Slice<Product> findPageAfterName(@Param("afterName") String afterName,
+                                     @Param("afterId") Integer afterId,
+                                     @Param("categoryName") String categoryName,
+                                     Pageable pageable);
+
+    // Streams every product through a database cursor instead of loading the whole table.
+    // The fetch size makes the driver pull rows in batches (MySQL needs useCursorFetch=true on the URL),
+    // and the read-only hint skips dirty-checking snapshots. Must be consumed inside a transaction and closed.
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAll();
+}
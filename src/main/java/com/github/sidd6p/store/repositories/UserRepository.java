@@ -1,13 +1,22 @@
 package com.github.sidd6p.store.repositories;
 
+import com.github.sidd6p.store.dtos.UserDto;
 import com.github.sidd6p.store.entities.User;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    // Selects only the columns UserDto exposes: the password hash is never read and the
+    // profile/address associations are never loaded
+    @Query("SELECT new com.github.sidd6p.store.dtos.UserDto(u.id, u.name, u.email, CAST(u.role AS String)) FROM User u")
+    List<UserDto> findAllDtos(Sort sort);
     // <User, Long> specifies that this repository manages User entities with Long as the ID type.
 }
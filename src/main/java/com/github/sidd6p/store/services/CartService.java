@@ -1,134 +1,360 @@
 package com.github.sidd6p.store.services;
 
+import com.github.sidd6p.store.cart.HotCartStore;
 import com.github.sidd6p.store.dtos.AddItemToCartRequest;
 import com.github.sidd6p.store.dtos.AddItemToCartResponse;
 import com.github.sidd6p.store.dtos.CartDto;
+import com.github.sidd6p.store.dtos.CartItemOperation;
+import com.github.sidd6p.store.dtos.CartLineView;
+import com.github.sidd6p.store.dtos.ProductDto;
 import com.github.sidd6p.store.dtos.UpdateCartItemRequest;
 import com.github.sidd6p.store.entities.Cart;
+import com.github.sidd6p.store.entities.CartItem;
+import com.github.sidd6p.store.entities.Product;
 import com.github.sidd6p.store.mappers.AddItemToCartResponseMapper;
 import com.github.sidd6p.store.mappers.CartMapper;
+import com.github.sidd6p.store.membership.CartIdFilter;
+import com.github.sidd6p.store.repositories.CartItemJdbcRepository;
 import com.github.sidd6p.store.repositories.CartRepository;
 import com.github.sidd6p.store.repositories.ProductRepository;
 import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class CartService {
+    private static final int MAX_OPERATIONS_PER_REQUEST = 500;
+
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
     private final CartMapper cartMapper;
     private final AddItemToCartResponseMapper addItemToCartResponseMapper;
     private final EntityManager entityManager;
+    private final CartIdFilter cartIdFilter;
+    private final CartItemJdbcRepository cartItemJdbcRepository;
+    private final ProductService productService;
+    // Present only when cart.hotStore.enabled is true; every method then works on the in-memory cart.
+    // Methods are not @Transactional: the hot store runs its own short transactions, which must not wait for a
+    // second connection while an outer transaction holds one. Database paths run in transactionTemplate.
+    private final ObjectProvider<HotCartStore> hotCartStore;
+    private final TransactionTemplate transactionTemplate;
 
     public Optional<CartDto> getCartById(UUID cartId) {
         log.info("Fetching cart with ID: {}", cartId);
-        return cartRepository.findById(cartId)
-                .map(cartMapper::toDto);
+        if (!cartIdFilter.mightExist(cartId)) {
+            return Optional.empty();
+        }
+        var hotCarts = hotCartStore.getIfAvailable();
+        if (hotCarts != null) {
+            return hotCarts.read(cartId).map(this::toDto);
+        }
+        // One query, in the repository's own read-only transaction
+        var lines = cartRepository.findLinesByCartId(cartId);
+        return lines.isEmpty() ? Optional.empty() : Optional.of(cartMapper.toDto(lines));
     }
 
-
-    @Transactional
     public CartDto createCart() {
         log.info("Creating a new cart");
 
-        var cart = new Cart();
-        entityManager.persist(cart);
-        entityManager.flush();
-        entityManager.refresh(cart);
+        var hotCarts = hotCartStore.getIfAvailable();
+        if (hotCarts != null) {
+            var cart = hotCarts.create();
+            cartIdFilter.add(cart.id());
+            return toDto(cart);
+        }
+
+        return transactionTemplate.execute(status -> {
+            // The id and date_created are assigned in Java on persist, so the response needs no flush or re-read;
+            // the INSERT is sent at commit
+            var cart = new Cart();
+            entityManager.persist(cart);
+            // Registered before commit so the cart is never reported missing once other requests can see it
+            cartIdFilter.add(cart.getId());
 
-        return cartMapper.toDto(cart);
+            return cartMapper.toDto(cart);
+        });
     }
 
-    @Transactional
+    /**
+     * Adds one unit of the product to the cart: a new line when the product is not in the cart yet,
+     * otherwise its quantity is incremented. The line is written with a single upsert, without loading the
+     * cart, so concurrent adds of the same product all count.
+     */
     public Optional<AddItemToCartResponse> addToCart(UUID cartId, AddItemToCartRequest addItemToCartRequest) {
         log.info("Adding item to cart with ID: {}", cartId);
 
-        var cart = cartRepository.findById(cartId).orElse(null);
-        if (cart == null) {
+        if (!cartIdFilter.mightExist(cartId)) {
             log.warn("Cart with ID {} not found", cartId);
             return Optional.empty();
         }
 
-        var product = productRepository.findById(addItemToCartRequest.getProductId()).orElse(null);
-        if (product == null) {
-            log.warn("Product with ID {} not found", addItemToCartRequest.getProductId());
-            throw new IllegalArgumentException("Product not found");
+        var hotCarts = hotCartStore.getIfAvailable();
+        if (hotCarts != null) {
+            var productId = addItemToCartRequest.getProductId();
+            var product = findProducts(Collections.singletonList(productId)).get(productId);
+            if (product == null) {
+                log.warn("Product with ID {} not found", productId);
+                throw new IllegalArgumentException("Product not found");
+            }
+            return hotCarts.update(cartId, cart -> cart.quantities().merge(productId, 1, Integer::sum))
+                    .map(quantity -> new AddItemToCartResponse(product, quantity,
+                            product.getPrice().multiply(BigDecimal.valueOf(quantity))));
         }
 
-        try {
-            var cartItem = cart.addProduct(product);
-            cartRepository.save(cart);
-            entityManager.flush();
-            entityManager.refresh(cart);
+        return transactionTemplate.execute(status -> {
+            // Served from the second-level cache once warm
+            var product = productRepository.findById(addItemToCartRequest.getProductId()).orElse(null);
+            if (product == null) {
+                log.warn("Product with ID {} not found", addItemToCartRequest.getProductId());
+                throw new IllegalArgumentException("Product not found");
+            }
 
-            // Find the persisted cartItem to get its generated ID
-            var persistedCartItem = cart.findCartItemByProductId(product.getId())
-                    .orElse(cartItem);
+            int quantity;
+            try {
+                quantity = cartItemJdbcRepository.addQuantity(cartId, product.getId(), 1);
+            } catch (DataIntegrityViolationException e) {
+                if (e instanceof DuplicateKeyException) {
+                    throw e;
+                }
+                // The product exists, so the violated foreign key is the cart's
+                log.warn("Cart with ID {} not found", cartId);
+                return Optional.empty();
+            }
 
-            return Optional.of(addItemToCartResponseMapper.toResponse(persistedCartItem));
-        } catch (IllegalStateException e) {
-            log.warn("Failed to add product to cart: {}", e.getMessage());
-            throw new IllegalStateException("Product already exists in cart");
-        }
+            var cartItem = CartItem.builder().product(product).quantity(quantity).build();
+            return Optional.of(addItemToCartResponseMapper.toResponse(cartItem));
+        });
     }
 
-    @Transactional
     public Optional<CartDto> updateCartItemQuantity(UUID cartId, Integer productId, UpdateCartItemRequest request) {
         log.info("Updating quantity of product {} in cart {} to {}", productId, cartId, request.getQuantity());
 
-        return cartRepository.findById(cartId)
+        var hotCarts = hotCartStore.getIfAvailable();
+        if (hotCarts != null && cartIdFilter.mightExist(cartId)) {
+            return hotCarts.update(cartId, cart -> {
+                        if (cart.quantities().replace(productId, request.getQuantity()) == null) {
+                            throw new IllegalArgumentException("Product not found in cart");
+                        }
+                        return cart.snapshot();
+                    })
+                    .map(this::toDto);
+        }
+
+        return transactionTemplate.execute(status -> findCart(cartId)
                 .map(cart -> {
                     if (!cart.updateProductQuantity(productId, request.getQuantity())) {
                         throw new IllegalArgumentException("Product not found in cart");
                     }
 
-                    cartRepository.save(cart);
-                    entityManager.flush();
-                    entityManager.refresh(cart);
-
+                    // Dirty checking sends the UPDATE at commit; the loaded state already reflects it
                     return cartMapper.toDto(cart);
-                });
+                }));
     }
 
-    @Transactional
     public boolean removeCartItem(UUID cartId, Integer productId) {
         log.info("Removing product {} from cart {}", productId, cartId);
 
-        return cartRepository.findById(cartId)
+        var hotCarts = hotCartStore.getIfAvailable();
+        if (hotCarts != null && cartIdFilter.mightExist(cartId)) {
+            return hotCarts.update(cartId, cart -> cart.quantities().remove(productId) != null).orElse(false);
+        }
+
+        return transactionTemplate.execute(status -> findCart(cartId)
                 .map(cart -> {
-                    if (!cart.removeProduct(productId)) {
-                        return false;
+                    // orphanRemoval deletes the line at commit
+                    return cart.removeProduct(productId);
+                })
+                .orElse(false));
+    }
+
+    /**
+     * Applies the operations to the cart in request order, in one transaction, and returns the resulting cart.
+     * Operations are first reduced to the final quantity of each product, so a line is written at most once;
+     * products new to the cart are then loaded with a single query. Any invalid operation rejects the batch.
+     */
+    public Optional<CartDto> applyItemOperations(UUID cartId, List<CartItemOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation is required");
+        }
+        if (operations.size() > MAX_OPERATIONS_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_OPERATIONS_PER_REQUEST + " operations are allowed per request");
+        }
+        log.info("Applying {} item operations to cart {}", operations.size(), cartId);
+
+        var hotCarts = hotCartStore.getIfAvailable();
+        if (hotCarts != null && cartIdFilter.mightExist(cartId)) {
+            // Only an ADD can bring a product into the cart. They are all looked up before taking the cart's lock,
+            // which other carts share, since which ones are new is only known under it.
+            var addedProductIds = operations.stream()
+                    .filter(operation -> operation != null && operation.getType() == CartItemOperation.Type.ADD
+                            && operation.getProductId() != null)
+                    .map(CartItemOperation::getProductId)
+                    .distinct()
+                    .toList();
+            var products = addedProductIds.isEmpty() ? Map.<Integer, ProductDto>of() : findProducts(addedProductIds);
+            return hotCarts.update(cartId, cart -> {
+                        var current = cart.quantities();
+                        var quantities = finalQuantities(current::get, operations);
+                        quantities.forEach((productId, quantity) -> {
+                            if (quantity == null) {
+                                current.remove(productId);
+                            } else if (current.containsKey(productId) || products.containsKey(productId)) {
+                                current.put(productId, quantity);
+                            } else {
+                                throw new IllegalArgumentException("Product " + productId + " not found");
+                            }
+                        });
+                        return cart.snapshot();
+                    })
+                    .map(this::toDto);
+        }
+
+        return transactionTemplate.execute(status -> findCart(cartId)
+                .map(cart -> {
+                    var quantities = finalQuantities(
+                            productId -> cart.findCartItemByProductId(productId).map(CartItem::getQuantity).orElse(null),
+                            operations);
+
+                    var newProductIds = new ArrayList<Integer>();
+                    quantities.forEach((productId, quantity) -> {
+                        if (quantity != null && !cart.hasProduct(productId)) {
+                            newProductIds.add(productId);
+                        }
+                    });
+                    var products = new HashMap<Integer, Product>();
+                    if (!newProductIds.isEmpty()) {
+                        for (var product : productRepository.findAllWithCategoryByIdIn(newProductIds)) {
+                            products.put(product.getId(), product);
+                        }
                     }
 
-                    cartRepository.save(cart);
-                    entityManager.flush();
-                    entityManager.refresh(cart);
+                    quantities.forEach((productId, quantity) -> {
+                        if (quantity == null) {
+                            cart.removeProduct(productId);
+                        } else if (!cart.updateProductQuantity(productId, quantity)) {
+                            var product = products.get(productId);
+                            if (product == null) {
+                                throw new IllegalArgumentException("Product " + productId + " not found");
+                            }
+                            cart.addProduct(product).setQuantity(quantity);
+                        }
+                    });
 
-                    return true;
-                })
-                .orElse(false);
+                    // Dirty checking and cascades write the changed lines at commit
+                    return cartMapper.toDto(cart);
+                }));
     }
 
-    @Transactional
     public boolean clearCart(UUID cartId) {
         log.info("Clearing all items from cart {}", cartId);
 
-        return cartRepository.findById(cartId)
-                .map(cart -> {
-                    cart.clearCart();
-                    cartRepository.save(cart);
-                    entityManager.flush();
-                    entityManager.refresh(cart);
-                    return true;
-                })
-                .orElse(false);
+        var hotCarts = hotCartStore.getIfAvailable();
+        if (hotCarts != null && cartIdFilter.mightExist(cartId)) {
+            return hotCarts.update(cartId, cart -> {
+                cart.quantities().clear();
+                return true;
+            }).orElse(false);
+        }
+
+        if (!cartIdFilter.mightExist(cartId)) {
+            return false;
+        }
+        return transactionTemplate.execute(status -> {
+            if (!cartRepository.existsById(cartId)) {
+                return false;
+            }
+            // One DELETE for all lines instead of loading them to remove each one as an orphan
+            cartRepository.deleteItemsByCartId(cartId);
+            return true;
+        });
+    }
+
+    // Product id -> quantity after all operations, in first-touched order; null marks a removed line.
+    // Field constraints are checked by the controller; only rules that depend on the cart are checked here.
+    private static Map<Integer, Integer> finalQuantities(Function<Integer, Integer> currentQuantity,
+                                                        List<CartItemOperation> operations) {
+        var quantities = new LinkedHashMap<Integer, Integer>();
+        for (int i = 0; i < operations.size(); i++) {
+            var operation = operations.get(i);
+            var productId = operation.getProductId();
+            var current = quantities.containsKey(productId)
+                    ? quantities.get(productId)
+                    : currentQuantity.apply(productId);
+
+            switch (operation.getType()) {
+                case ADD -> {
+                    var quantity = operation.getQuantity() == null ? 1 : operation.getQuantity();
+                    try {
+                        quantities.put(productId, current == null ? quantity : Math.addExact(current, quantity));
+                    } catch (ArithmeticException e) {
+                        throw new IllegalArgumentException("Operation " + i + ": quantity of product " + productId + " is too large");
+                    }
+                }
+                case SET_QUANTITY -> {
+                    if (operation.getQuantity() == null) {
+                        throw new IllegalArgumentException("Operation " + i + ": quantity is required");
+                    }
+                    if (current == null) {
+                        throw new IllegalArgumentException("Operation " + i + ": product " + productId + " not found in cart");
+                    }
+                    quantities.put(productId, operation.getQuantity());
+                }
+                case REMOVE -> quantities.put(productId, null);
+            }
+        }
+        return quantities;
+    }
+
+    // Product id -> product, from the product cache when warm; unknown ids are left out
+    private Map<Integer, ProductDto> findProducts(List<Integer> productIds) {
+        var products = new HashMap<Integer, ProductDto>();
+        for (var product : productService.getProductsByIds(productIds).getProducts()) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    // Prices come from the product cache rather than from the time the product was added
+    private CartDto toDto(HotCartStore.CartState cart) {
+        var lines = new ArrayList<CartLineView>();
+        if (!cart.quantities().isEmpty()) {
+            var products = findProducts(new ArrayList<>(cart.quantities().keySet()));
+            cart.quantities().forEach((productId, quantity) -> {
+                var product = products.get(productId);
+                // A line whose product was deleted is left out, as the database's foreign key would
+                if (product != null) {
+                    lines.add(new CartLineView(cart.id(), cart.dateCreated(), product.getId(), product.getName(),
+                            product.getCategoryName(), product.getPrice(), quantity));
+                }
+            });
+        }
+        if (lines.isEmpty()) {
+            lines.add(new CartLineView(cart.id(), cart.dateCreated(), null, null, null, null, null));
+        }
+        return cartMapper.toDto(lines);
+    }
+
+    // Unknown ids are rejected by the filter without a query; known ones are loaded with their items,
+    // products and categories in one query
+    private Optional<Cart> findCart(UUID cartId) {
+        return cartIdFilter.mightExist(cartId) ? cartRepository.findWithItemsById(cartId) : Optional.empty();
     }
 }
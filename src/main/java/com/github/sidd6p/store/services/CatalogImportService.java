@@ -0,0 +1,307 @@
+package com.github.sidd6p.store.services;
+
+import com.github.sidd6p.store.catalog.CatalogCsvReader;
+import com.github.sidd6p.store.catalog.CategoryRegistry;
+import com.github.sidd6p.store.catalog.ProductBatchSavedEvent;
+import com.github.sidd6p.store.config.CatalogCacheConfig;
+import com.github.sidd6p.store.dtos.CatalogImportReport;
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.membership.ProductIdFilter;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import com.github.sidd6p.store.repositories.ProductJdbcRepository;
+import com.github.sidd6p.store.repositories.ProductJdbcRepository.ProductRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Applies a full catalog export (CSV with the columns {@code id,name,price,category}) to the products table.
+ * <p>
+ * The file is parsed one record at a time. Each row is compared with the stored product through a 64-bit
+ * hash of its name, price and category, so only new or changed rows are written, in JDBC batches of
+ * {@code catalog.bulk.chunkSize}. Memory use is one hash per existing product, independent of the file size.
+ * Unknown category names are created in the transaction of the chunk that first uses them, so a failed
+ * chunk leaves neither products nor categories behind.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportService {
+    private static final List<String> COLUMNS = List.of("id", "name", "price", "category");
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductIdFilter productIdFilter;
+
+    @Value("${catalog.bulk.chunkSize:500}")
+    private int chunkSize;
+
+    // A parsed row; newCategory is set (and the row's categoryId is null) when its category does not exist yet
+    private record ImportRow(ProductRow row, String newCategory) {
+    }
+
+    private static final class Progress {
+        // Hashes of the stored products, updated only once a chunk commits
+        final Map<Integer, Long> hashes = new HashMap<>();
+        // Hashes of the rows waiting in the current chunk, so a row repeated within it is compared with its latest copy
+        final Map<Integer, Long> chunkHashes = new HashMap<>();
+        final List<ImportRow> inserts = new ArrayList<>();
+        final List<ImportRow> updates = new ArrayList<>();
+        final int priceScale;
+        long unchanged;
+        long updated;
+        long inserted;
+        long failed;
+        long categoriesCreated;
+
+        Progress(int priceScale) {
+            this.priceScale = priceScale;
+        }
+    }
+
+    @CacheEvict(cacheNames = CatalogCacheConfig.PRODUCTS, allEntries = true)
+    public CatalogImportReport importCsv(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        // Prices are rounded to what the column stores, e.g. whole units for decimal(10, 0), so that an
+        // unchanged row hashes the same as its stored copy
+        var progress = new Progress(productJdbcRepository.priceScale());
+
+        productJdbcRepository.forEachRow(row -> progress.hashes.put(row.id(), contentHash(row, progress.priceScale)));
+        log.info("Importing catalog against {} existing products", progress.hashes.size());
+
+        try (var csv = new CatalogCsvReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            var header = csv.readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            var columns = resolveColumns(header);
+
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+
+                ImportRow row;
+                try {
+                    row = parse(record, columns, progress.priceScale);
+                } catch (IllegalArgumentException e) {
+                    progress.failed++;
+                    log.warn("Skipping catalog line {}: {}", csv.getRecordLine(), e.getMessage());
+                    continue;
+                }
+
+                var id = row.row().id();
+                long hash = contentHash(row, progress.priceScale);
+                var previous = progress.chunkHashes.containsKey(id) ? progress.chunkHashes.get(id) : progress.hashes.get(id);
+                if (previous == null) {
+                    progress.inserts.add(row);
+                } else if (previous != hash) {
+                    progress.updates.add(row);
+                } else {
+                    progress.unchanged++;
+                    continue;
+                }
+                progress.chunkHashes.put(id, hash);
+                if (progress.inserts.size() + progress.updates.size() >= chunkSize) {
+                    flush(progress);
+                }
+            }
+        }
+        flush(progress);
+
+        long rows = progress.unchanged + progress.updated + progress.inserted + progress.failed;
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        var report = new CatalogImportReport(progress.unchanged, progress.updated, progress.inserted, progress.failed,
+                progress.categoriesCreated, elapsedMillis, rows * 1000 / elapsedMillis);
+        log.info("Catalog import finished: {}", report);
+        return report;
+    }
+
+    private void flush(Progress progress) {
+        if (progress.inserts.isEmpty() && progress.updates.isEmpty()) {
+            return;
+        }
+        var inserts = List.copyOf(progress.inserts);
+        var updates = List.copyOf(progress.updates);
+        progress.inserts.clear();
+        progress.updates.clear();
+        progress.chunkHashes.clear();
+
+        // Keyed by lower-cased name; only valid if the transaction commits
+        var createdCategories = new LinkedHashMap<String, Category>();
+        try {
+            var saved = transactionTemplate.execute(status -> {
+                var insertRows = resolveCategories(inserts, createdCategories);
+                var updateRows = resolveCategories(updates, createdCategories);
+                // Inserts first, so a row repeated later in the same chunk updates the row it created
+                if (!insertRows.isEmpty()) {
+                    productJdbcRepository.insertAllWithIds(insertRows);
+                    // Known to the filter before the commit makes the products visible to lookups
+                    insertRows.forEach(row -> productIdFilter.add(row.id()));
+                }
+                if (!updateRows.isEmpty()) {
+                    productJdbcRepository.replaceAll(updateRows);
+                }
+                var rows = Stream.concat(insertRows.stream(), updateRows.stream()).toList();
+                eventPublisher.publishEvent(new ProductBatchSavedEvent(rows.stream()
+                        .map(row -> new ProductDto(row.id(), row.name(), categoryName(row.categoryId(), createdCategories), row.price()))
+                        .toList()));
+                return rows;
+            });
+            // In write order, so a row repeated within the chunk leaves the hash of its last copy
+            saved.forEach(row -> progress.hashes.put(row.id(), contentHash(row, progress.priceScale)));
+            progress.inserted += inserts.size();
+            progress.updated += updates.size();
+            progress.categoriesCreated += createdCategories.size();
+            createdCategories.values().forEach(category ->
+                    log.info("Created category '{}' from catalog import", category.getName()));
+        } catch (DataAccessException e) {
+            progress.failed += inserts.size() + updates.size();
+            log.warn("Catalog import batch of {} rows failed: {}", inserts.size() + updates.size(),
+                    e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static int[] resolveColumns(List<String> header) {
+        var positions = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            positions[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                // The first header cell may carry a UTF-8 byte order mark
+                var name = header.get(j).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                if (name.equals(COLUMNS.get(i))) {
+                    positions[i] = j;
+                }
+            }
+            if (positions[i] < 0 && !COLUMNS.get(i).equals("category")) {
+                throw new IllegalArgumentException("CSV header is missing the '" + COLUMNS.get(i) + "' column");
+            }
+        }
+        return positions;
+    }
+
+    private List<ProductRow> resolveCategories(List<ImportRow> rows, Map<String, Category> createdCategories) {
+        return rows.stream()
+                .map(importRow -> {
+                    if (importRow.newCategory() == null) {
+                        return importRow.row();
+                    }
+                    // The registry picks the new category up once the chunk commits
+                    var category = createdCategories.computeIfAbsent(importRow.newCategory().toLowerCase(Locale.ROOT),
+                            key -> categoryRepository.save(new Category(importRow.newCategory())));
+                    var row = importRow.row();
+                    return new ProductRow(row.id(), row.name(), row.price(), category.getId());
+                })
+                .toList();
+    }
+
+    // Categories created by the running chunk are not in the registry until it commits
+    private String categoryName(Integer categoryId, Map<String, Category> createdCategories) {
+        if (categoryId == null) {
+            return null;
+        }
+        for (var category : createdCategories.values()) {
+            if (category.getId().equals(categoryId)) {
+                return category.getName();
+            }
+        }
+        return categoryRegistry.findById(categoryId).map(Category::getName).orElse(null);
+    }
+
+    private ImportRow parse(List<String> record, int[] columns, int priceScale) {
+        var idText = field(record, columns[0]);
+        var name = field(record, columns[1]);
+        var priceText = field(record, columns[2]);
+        var categoryName = field(record, columns[3]);
+
+        int id;
+        BigDecimal price;
+        try {
+            id = Integer.parseInt(idText);
+            price = new BigDecimal(priceText).setScale(priceScale, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid id '" + idText + "' or price '" + priceText + "'");
+        }
+        if (id <= 0) {
+            throw new IllegalArgumentException("id must be positive");
+        }
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("name must be between 1 and " + MAX_NAME_LENGTH + " characters");
+        }
+        if (price.signum() < 0) {
+            throw new IllegalArgumentException("price must not be negative");
+        }
+
+        if (categoryName.isEmpty()) {
+            return new ImportRow(new ProductRow(id, name, price, null), null);
+        }
+        return categoryRegistry.findByName(categoryName)
+                .map(category -> new ImportRow(new ProductRow(id, name, price, category.getId()), null))
+                .orElseGet(() -> new ImportRow(new ProductRow(id, name, price, null), categoryName));
+    }
+
+    private static String field(List<String> record, int column) {
+        return column >= 0 && column < record.size() ? record.get(column).trim() : "";
+    }
+
+    private static long contentHash(ProductRow row, int priceScale) {
+        return contentHash(row.name(), row.price(), row.categoryId() != null ? row.categoryId().toString() : "", priceScale);
+    }
+
+    // A category that does not exist yet is keyed by name, which never equals the id of a stored category
+    private static long contentHash(ImportRow row, int priceScale) {
+        if (row.newCategory() == null) {
+            return contentHash(row.row(), priceScale);
+        }
+        return contentHash(row.row().name(), row.row().price(), "new:" + row.newCategory().toLowerCase(Locale.ROOT), priceScale);
+    }
+
+    /**
+     * FNV-1a hash of the columns the import can change. Prices are compared at the scale of the price column.
+     */
+    private static long contentHash(String name, BigDecimal price, String category, int priceScale) {
+        long hash = 0xcbf29ce484222325L;
+        hash = hash(hash, name);
+        hash = hash(hash, price != null ? price.setScale(priceScale, RoundingMode.HALF_UP).toPlainString() : "");
+        hash = hash(hash, category);
+        return hash;
+    }
+
+    private static long hash(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+        // Field separator, so ("ab", "c") and ("a", "bc") hash differently
+        hash ^= 0x1F;
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.sidd6p.store.services;
 
+import com.github.sidd6p.store.cart.HotCartStore;
 import com.github.sidd6p.store.dtos.CheckoutResponse;
 import com.github.sidd6p.store.entities.Cart;
 import com.github.sidd6p.store.entities.Order;
@@ -13,9 +14,11 @@ import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.net.Webhook;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -30,14 +33,29 @@ public class CheckoutService {
     private final AuthService authService;
     private final OrderRepository orderRepository;
     private final PayementGateway payementGateway;
+    private final ObjectProvider<HotCartStore> hotCartStore;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${stripe.webhookSecret}")
     private String webhookSecret;
 
-    @Transactional
     public CheckoutResponse processCheckout(UUID cartId) {
-        // Get the Cart entity directly from repository
-        Cart cart = cartRepository.findById(cartId)
+        var hotCarts = hotCartStore.getIfAvailable();
+        if (hotCarts == null) {
+            return transactionTemplate.execute(status -> checkout(cartId, true));
+        }
+        // The latest cart state may only be in memory: write it before the checkout transaction begins, so the
+        // read sees it without the flush holding a second connection. The in-memory cart is cleared the same
+        // way, once the order is committed.
+        hotCarts.flush(cartId);
+        var response = transactionTemplate.execute(status -> checkout(cartId, false));
+        cartService.clearCart(cartId);
+        return response;
+    }
+
+    private CheckoutResponse checkout(UUID cartId, boolean clearCart) {
+        // The cart with its items, products and categories in one query
+        Cart cart = cartRepository.findWithItemsById(cartId)
                 .orElseThrow(() -> new IllegalArgumentException("Cart not found"));
 
         if (cart.getCartItems() == null || cart.getCartItems().isEmpty()) {
@@ -49,15 +67,12 @@ public class CheckoutService {
             throw new IllegalStateException("User not authenticated");
         }
 
-        // Calculate total price from cart items
-        BigDecimal totalPrice = cart.getCartItems().stream()
-                .map(item -> {
-                    if (item.getProduct() == null) {
-                        throw new IllegalStateException("Cart item has no associated product");
-                    }
-                    return item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-                })
-                .reduce(BigDecimal.ZERO, (a, b) -> a.add(b));
+        if (cart.getCartItems().stream().anyMatch(item -> item.getProduct() == null)) {
+            throw new IllegalStateException("Cart item has no associated product");
+        }
+
+        // Maintained by the cart as its lines change
+        BigDecimal totalPrice = cart.getTotalPrice();
 
         var order = Order.builder()
                 .customerId(currentUser.getId())
@@ -79,7 +94,7 @@ public class CheckoutService {
                     .productId(product.getId())
                     .unitPrice(product.getPrice())
                     .quantity(item.getQuantity())
-                    .totalPrice(product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                    .totalPrice(item.getTotalPrice())
                     .order(order)  // Set the order relationship instead of orderId
                     .build();
 
@@ -96,7 +111,9 @@ public class CheckoutService {
 
             // Clear the cart immediately after successful checkout session creation
             // The order has been created with its own order items, so the cart can be cleared
-            cartService.clearCart(cartId);
+            if (clearCart) {
+                cartService.clearCart(cartId);
+            }
 
             return new CheckoutResponse(savedOrder.getId(), checkoutSession.getUrl());
 
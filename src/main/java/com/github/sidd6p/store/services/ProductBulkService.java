@@ -0,0 +1,222 @@
+package com.github.sidd6p.store.services;
+
+import com.github.sidd6p.store.catalog.CategoryRegistry;
+import com.github.sidd6p.store.catalog.ProductBatchSavedEvent;
+import com.github.sidd6p.store.config.CatalogCacheConfig;
+import com.github.sidd6p.store.dtos.BulkProductResponse;
+import com.github.sidd6p.store.dtos.BulkProductResult;
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.dtos.UpdateProductRequest;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.mappers.ProductMapper;
+import com.github.sidd6p.store.membership.ProductIdFilter;
+import com.github.sidd6p.store.repositories.ProductJdbcRepository;
+import com.github.sidd6p.store.repositories.ProductJdbcRepository.ProductRow;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Creates and updates many products per request using JDBC batches.
+ * <p>
+ * Categories are resolved from {@link CategoryRegistry} without touching the database. Valid items
+ * are then written in chunks, each chunk being one batched statement inside its own transaction, so
+ * a failing chunk does not roll back the ones before it. Every item gets its own result in request order.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBulkService {
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductIdFilter productIdFilter;
+
+    @Value("${catalog.bulk.chunkSize:500}")
+    private int chunkSize;
+
+    @CacheEvict(cacheNames = CatalogCacheConfig.PRODUCTS, allEntries = true)
+    public BulkProductResponse createProducts(List<RegisterProductRequest> requests) {
+        log.info("Bulk creating {} products", requests.size());
+        long start = System.nanoTime();
+        var categories = findCategories(requests.stream().map(RegisterProductRequest::getCategory_id).toList());
+        var results = new BulkProductResult[requests.size()];
+
+        var valid = new ArrayList<Integer>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            var error = validate(request.getName(), true, request.getPrice(), true, request.getCategory_id(), categories);
+            if (error != null) {
+                results[i] = new BulkProductResult(i, null, BulkProductResult.Status.FAILED, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (var chunk : chunks(valid)) {
+            try {
+                var ids = transactionTemplate.execute(status -> {
+                    var rows = chunk.stream()
+                            .map(requests::get)
+                            .map(request -> new ProductRow(null, request.getName(), request.getPrice(), request.getCategory_id()))
+                            .toList();
+                    var generatedIds = productJdbcRepository.insertAll(rows);
+                    // Known to the filter before the commit makes the products visible to lookups
+                    generatedIds.forEach(productIdFilter::add);
+
+                    var saved = new ArrayList<ProductDto>(rows.size());
+                    for (int k = 0; k < rows.size(); k++) {
+                        var row = rows.get(k);
+                        var category = row.categoryId() != null ? categories.get(row.categoryId()) : null;
+                        saved.add(new ProductDto(generatedIds.get(k), row.name(),
+                                category != null ? category.getName() : null, row.price()));
+                    }
+                    // Delivered to the in-memory indexes once this chunk commits
+                    eventPublisher.publishEvent(new ProductBatchSavedEvent(saved));
+                    return generatedIds;
+                });
+                for (int k = 0; k < chunk.size(); k++) {
+                    results[chunk.get(k)] = new BulkProductResult(chunk.get(k), ids.get(k), BulkProductResult.Status.CREATED, null);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Bulk insert chunk of {} products failed: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+                failChunk(results, chunk, e);
+            }
+        }
+
+        return summarize(results, "created", start);
+    }
+
+    @CacheEvict(cacheNames = CatalogCacheConfig.PRODUCTS, allEntries = true)
+    public BulkProductResponse updateProducts(List<UpdateProductRequest> requests) {
+        log.info("Bulk updating {} products", requests.size());
+        long start = System.nanoTime();
+        var categories = findCategories(requests.stream().map(UpdateProductRequest::getCategory_id).toList());
+        var results = new BulkProductResult[requests.size()];
+
+        var valid = new ArrayList<Integer>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            var error = request.getId() == null
+                    ? "id is required"
+                    : validate(request.getName(), false, request.getPrice(), false, request.getCategory_id(), categories);
+            if (error != null) {
+                results[i] = new BulkProductResult(i, request.getId(), BulkProductResult.Status.FAILED, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (var chunk : chunks(valid)) {
+            try {
+                var counts = transactionTemplate.execute(status -> {
+                    var rows = chunk.stream()
+                            .map(requests::get)
+                            .map(request -> new ProductRow(request.getId(), request.getName(), request.getPrice(), request.getCategory_id()))
+                            .toList();
+                    var affected = productJdbcRepository.updateAll(rows);
+
+                    // Null fields kept their old values, so read the final state back for the indexes
+                    var updatedIds = new ArrayList<Integer>();
+                    for (int k = 0; k < rows.size(); k++) {
+                        if (affected[k] != 0) {
+                            updatedIds.add(rows.get(k).id());
+                        }
+                    }
+                    if (!updatedIds.isEmpty()) {
+                        var saved = productRepository.findAllWithCategoryByIdIn(updatedIds).stream()
+                                .map(productMapper::toDto)
+                                .toList();
+                        eventPublisher.publishEvent(new ProductBatchSavedEvent(saved));
+                    }
+                    return affected;
+                });
+                for (int k = 0; k < chunk.size(); k++) {
+                    int index = chunk.get(k);
+                    var status = counts[k] != 0 ? BulkProductResult.Status.UPDATED : BulkProductResult.Status.NOT_FOUND;
+                    results[index] = new BulkProductResult(index, requests.get(index).getId(), status, null);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Bulk update chunk of {} products failed: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+                failChunk(results, chunk, e, index -> requests.get(index).getId());
+            }
+        }
+
+        return summarize(results, "updated", start);
+    }
+
+    private Map<Integer, Category> findCategories(List<Integer> categoryIds) {
+        var categories = new HashMap<Integer, Category>();
+        categoryIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(id -> categoryRegistry.findById(id).ifPresent(category -> categories.put(id, category)));
+        return categories;
+    }
+
+    private static String validate(String name, boolean nameRequired, BigDecimal price, boolean priceRequired,
+                                   Integer categoryId, Map<Integer, Category> categories) {
+        if (nameRequired ? name == null || name.isBlank() : name != null && name.isBlank()) {
+            return "name is required";
+        }
+        if (priceRequired && price == null) {
+            return "price is required";
+        }
+        if (price != null && price.signum() < 0) {
+            return "price must not be negative";
+        }
+        if (categoryId != null && !categories.containsKey(categoryId)) {
+            return "Invalid category_id provided";
+        }
+        return null;
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        var chunks = new ArrayList<List<Integer>>();
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            chunks.add(indexes.subList(from, Math.min(from + chunkSize, indexes.size())));
+        }
+        return chunks;
+    }
+
+    private static void failChunk(BulkProductResult[] results, List<Integer> chunk, DataAccessException e) {
+        failChunk(results, chunk, e, index -> null);
+    }
+
+    private static void failChunk(BulkProductResult[] results, List<Integer> chunk, DataAccessException e,
+                                  IntFunction<Integer> idOf) {
+        var message = "Batch write failed: " + e.getMostSpecificCause().getMessage();
+        chunk.forEach(index -> results[index] = new BulkProductResult(index, idOf.apply(index), BulkProductResult.Status.FAILED, message));
+    }
+
+    private static BulkProductResponse summarize(BulkProductResult[] results, String action, long startNanos) {
+        var list = Arrays.asList(results);
+        int failed = (int) list.stream()
+                .filter(result -> result.getStatus() == BulkProductResult.Status.FAILED
+                        || result.getStatus() == BulkProductResult.Status.NOT_FOUND)
+                .count();
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Bulk {} {} of {} products in {} ms ({} rows/s)", action, results.length - failed, results.length,
+                elapsedMillis, results.length * 1000L / elapsedMillis);
+        return new BulkProductResponse(results.length - failed, failed, list);
+    }
+}
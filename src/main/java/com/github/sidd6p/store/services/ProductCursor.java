@@ -0,0 +1,87 @@
+package com.github.sidd6p.store.services;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Position of the last row returned by a keyset-paginated product query.
+ * <p>
+ * The cursor is handed to clients as an opaque URL-safe token. It encodes the sort key,
+ * the value of the sorted column and the product id used as a tie-breaker, so the next
+ * page can be fetched with a seek predicate instead of an OFFSET.
+ */
+public record ProductCursor(SortKey sortKey, String value, Integer id) {
+
+    /**
+     * Columns that cursor pagination can sort by. Each one is backed by an index ending in {@code id}.
+     */
+    public enum SortKey {
+        ID,
+        PRICE,
+        NAME;
+
+        public static SortKey from(String sort) {
+            if (sort == null || sort.isBlank()) {
+                return ID;
+            }
+            try {
+                return valueOf(sort.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported sort '" + sort + "'. Expected one of: id, price, name");
+            }
+        }
+    }
+
+    /**
+     * Cursor positioned before the first row for the given sort key.
+     */
+    public static ProductCursor start(SortKey sortKey) {
+        return switch (sortKey) {
+            case ID -> new ProductCursor(sortKey, "0", 0);
+            // Prices are never negative, so -1 sorts before every row
+            case PRICE -> new ProductCursor(sortKey, "-1", 0);
+            // Empty names are still included because the id tie-breaker starts at 0
+            case NAME -> new ProductCursor(sortKey, "", 0);
+        };
+    }
+
+    public BigDecimal priceValue() {
+        return new BigDecimal(value);
+    }
+
+    public String encode() {
+        var raw = sortKey.name() + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort order
+     */
+    public static ProductCursor decode(String token, SortKey expectedSortKey) {
+        ProductCursor cursor;
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            cursor = new ProductCursor(SortKey.valueOf(parts[0]), parts[2], Integer.valueOf(parts[1]));
+            if (cursor.sortKey() == SortKey.PRICE) {
+                cursor.priceValue();
+            }
+        } catch (IllegalArgumentException e) {
+            // Covers bad Base64, unknown sort keys and unparsable numbers (NumberFormatException)
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (cursor.sortKey() != expectedSortKey) {
+            throw new IllegalArgumentException("Cursor does not match sort order '"
+                    + expectedSortKey.name().toLowerCase(Locale.ROOT) + "'");
+        }
+        return cursor;
+    }
+}
@@ -1,67 +1,302 @@
 package com.github.sidd6p.store.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sidd6p.store.catalog.CategoryRegistry;
+import com.github.sidd6p.store.catalog.ProductChangedEvent;
+import com.github.sidd6p.store.catalog.ProductFacetIndex;
+import com.github.sidd6p.store.catalog.ProductNameAutocomplete;
+import com.github.sidd6p.store.catalog.ProductPriceIndex;
+import com.github.sidd6p.store.catalog.ProductSearchIndex;
+import com.github.sidd6p.store.config.CatalogCacheConfig;
+import com.github.sidd6p.store.dtos.ProductBatchResponse;
 import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.dtos.ProductFacetsResponse;
+import com.github.sidd6p.store.dtos.ProductSliceResponse;
 import com.github.sidd6p.store.dtos.RegisterProductRequest;
 import com.github.sidd6p.store.entities.Category;
 import com.github.sidd6p.store.entities.Product;
 import com.github.sidd6p.store.mappers.ProductMapper;
+import com.github.sidd6p.store.membership.ProductIdFilter;
 import com.github.sidd6p.store.repositories.ProductRepository;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class ProductService {
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_IDS_PER_REQUEST = 1000;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    // Keeps each IN list well below database and driver parameter limits
+    private static final int ID_LOOKUP_CHUNK_SIZE = 200;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductNameAutocomplete productNameAutocomplete;
+    private final ProductPriceIndex productPriceIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryRegistry categoryRegistry;
+    private final CacheManager cacheManager;
+    private final ProductIdFilter productIdFilter;
 
+    // Only per-category lists are cached here; the unfiltered list is too large to keep as objects, but its
+    // encoded body is cached by CatalogResponseCache. Both are filled from this method, so it reads from the
+    // primary: rows from a lagging replica would be cached under the new catalog version until the TTL.
+    // The key carries the catalog version read before the query, so a list read while a write commits is
+    // stored under the old version and never served afterwards; CatalogVersion drops the old entries.
+    @Cacheable(cacheNames = CatalogCacheConfig.PRODUCTS_BY_CATEGORY, key = "@catalogVersion.current() + ':' + #category",
+            condition = "#category != null && !#category.isEmpty()")
+    @Transactional
     public List<ProductDto> getAllProducts(String category) {
         if (category != null && !category.isEmpty()) {
             log.info("Fetching products for category: {}", category);
-            return productRepository.findByCategoryNameWithCategory(category).stream()
-                    .map(productMapper::toDto)
-                    .toList();
+            // Unknown categories are answered from the registry without a query
+            return categoryRegistry.findByName(category)
+                    .map(found -> productRepository.findDtosByCategoryId(found.getId()))
+                    .orElseGet(List::of);
         } else {
             log.info("Fetching all products");
-            return productRepository.findAll().stream()
-                    .map(productMapper::toDto)
-                    .toList();
+            return productRepository.findAllDtos();
+        }
+    }
+
+    /**
+     * Returns one page of products using keyset pagination.
+     * <p>
+     * The page is located with a seek predicate on (sort column, id) rather than an OFFSET and
+     * no COUNT(*) is issued, so fetching page 1 or page 10,000 costs the same.
+     *
+     * @param after opaque cursor from a previous response, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public ProductSliceResponse getProductSlice(String category, String after, int limit, String sort) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        var sortKey = ProductCursor.SortKey.from(sort);
+        var cursor = after == null || after.isBlank()
+                ? ProductCursor.start(sortKey)
+                : ProductCursor.decode(after, sortKey);
+        var categoryName = category == null || category.isEmpty() ? null : category;
+        var pageable = PageRequest.ofSize(limit);
+
+        log.info("Fetching {} products sorted by {} after {}", limit, sortKey, cursor);
+        Slice<Product> slice = switch (sortKey) {
+            case ID -> productRepository.findPageAfterId(cursor.id(), categoryName, pageable);
+            case PRICE -> productRepository.findPageAfterPrice(cursor.priceValue(), cursor.id(), categoryName, pageable);
+            case NAME -> productRepository.findPageAfterName(cursor.value(), cursor.id(), categoryName, pageable);
+        };
+
+        var content = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            var last = content.get(content.size() - 1);
+            var value = switch (sortKey) {
+                case ID -> String.valueOf(last.getId());
+                case PRICE -> last.getPrice().toPlainString();
+                case NAME -> last.getName();
+            };
+            nextCursor = new ProductCursor(sortKey, value, last.getId()).encode();
+        }
+
+        return new ProductSliceResponse(
+                content.stream().map(productMapper::toDto).toList(),
+                nextCursor,
+                slice.hasNext()
+        );
+    }
+
+    /**
+     * Writes the whole catalog to the given stream as newline-delimited JSON, one ProductDto per line.
+     * <p>
+     * Rows come from a database cursor and the persistence context is cleared after every chunk,
+     * so memory use does not grow with the size of the catalog. The stream is flushed per chunk
+     * so the client starts receiving data before the query has finished.
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream outputStream) throws IOException {
+        log.info("Exporting product catalog as NDJSON");
+        long count = 0;
+        try (var products = productRepository.streamAll()) {
+            var iterator = products.iterator();
+            while (iterator.hasNext()) {
+                outputStream.write(objectMapper.writeValueAsBytes(productMapper.toDto(iterator.next())));
+                outputStream.write('\n');
+                if (++count % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
+        log.info("Exported {} products", count);
+    }
+
+    /**
+     * Returns one page of products priced within [minPrice, maxPrice], cheapest first,
+     * answered from the in-memory price index. Pages use the same cursor format as price-sorted
+     * {@link #getProductSlice} pages.
+     */
+    public ProductSliceResponse getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                        String after, int limit) {
+        if (minPrice.signum() < 0 || minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must be non-negative and not greater than maxPrice");
+        }
+        if (maxPrice.compareTo(ProductPriceIndex.MAX_PRICE) > 0) {
+            throw new IllegalArgumentException("maxPrice must not be greater than " + ProductPriceIndex.MAX_PRICE);
         }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        var cursor = after == null || after.isBlank()
+                ? null
+                : ProductCursor.decode(after, ProductCursor.SortKey.PRICE);
+        var categoryName = category == null || category.isEmpty() ? null : category;
+
+        log.info("Fetching products priced between {} and {} in category {}", minPrice, maxPrice, categoryName);
+        var page = productPriceIndex.findInRange(minPrice, maxPrice, categoryName,
+                cursor != null ? cursor.priceValue() : null,
+                cursor != null ? cursor.id() : 0,
+                limit);
+
+        String nextCursor = null;
+        if (page.hasNext()) {
+            var last = page.products().get(page.products().size() - 1);
+            nextCursor = new ProductCursor(ProductCursor.SortKey.PRICE, last.getPrice().toPlainString(), last.getId()).encode();
+        }
+        return new ProductSliceResponse(page.products(), nextCursor, page.hasNext());
     }
 
+    // Missing ids are cached too (as null) so repeated lookups of unknown products skip the database.
+    // Read from the primary, so a product created a moment ago is not cached as missing.
+    @Cacheable(cacheNames = CatalogCacheConfig.PRODUCTS, key = "#id")
+    @Transactional
     public Optional<ProductDto> getProductById(Integer id) {
         log.info("Fetching product by id: {}", id);
+        if (!productIdFilter.mightExist(id)) {
+            return Optional.empty();
+        }
         return productRepository.findById(id)
                 .map(productMapper::toDto);
     }
 
+    /**
+     * Looks up many products at once, in request order, reporting ids that match no product.
+     * <p>
+     * Ids rejected by the product id filter or found in the product cache (including cached misses) are
+     * answered without a query. The rest are loaded with one IN query per chunk of {@value #ID_LOOKUP_CHUNK_SIZE}
+     * ids, joined with their category, and written back to the cache so following lookups skip the database.
+     * Since the results are cached, they are read from the primary rather than the read replica.
+     */
+    @Transactional
+    public ProductBatchResponse getProductsByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one product id is required");
+        }
+        // Not ids.contains(null): immutable lists throw on a null argument instead of answering false
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Product ids must not be null");
+        }
+        var requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (requested.size() > MAX_IDS_PER_REQUEST) {
+            throw new IllegalArgumentException("At most " + MAX_IDS_PER_REQUEST + " product ids can be requested at once");
+        }
+
+        var cache = cacheManager.getCache(CatalogCacheConfig.PRODUCTS);
+        var found = new HashMap<Integer, ProductDto>();
+        var missing = new HashSet<Integer>();
+        var toLoad = new ArrayList<Integer>();
+        for (var id : requested) {
+            var cached = cache != null ? cache.get(id) : null;
+            if (!productIdFilter.mightExist(id)) {
+                missing.add(id);
+            } else if (cached == null) {
+                toLoad.add(id);
+            } else if (cached.get() instanceof ProductDto product) {
+                found.put(id, product);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        log.info("Fetching {} products by id, {} from cache", requested.size(), requested.size() - toLoad.size());
+        for (int from = 0; from < toLoad.size(); from += ID_LOOKUP_CHUNK_SIZE) {
+            var chunk = toLoad.subList(from, Math.min(from + ID_LOOKUP_CHUNK_SIZE, toLoad.size()));
+            productRepository.findDtosByIdIn(chunk).forEach(product -> found.put(product.getId(), product));
+            for (var id : chunk) {
+                var product = found.get(id);
+                if (product == null) {
+                    missing.add(id);
+                }
+                // Same entries getProductById caches, including null for unknown ids
+                if (cache != null) {
+                    cache.put(id, product);
+                }
+            }
+        }
+
+        return new ProductBatchResponse(
+                requested.stream().filter(found::containsKey).map(found::get).toList(),
+                requested.stream().filter(missing::contains).toList()
+        );
+    }
+
+    @CachePut(cacheNames = CatalogCacheConfig.PRODUCTS, key = "#result.id")
+    @Transactional
     public ProductDto createProduct(RegisterProductRequest registerProductRequest) {
         log.info("Creating product with details: {}", registerProductRequest);
         var product = productMapper.toEntity(registerProductRequest);
         productRepository.save(product);
-        return productMapper.toDto(product);
+        // Known to the filter before the commit makes the product visible to lookups
+        productIdFilter.add(product.getId());
+        var productDto = productMapper.toDto(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(productDto));
+        return productDto;
     }
 
+    @CacheEvict(cacheNames = CatalogCacheConfig.PRODUCTS, key = "#id")
     public boolean deleteProductById(Integer id) {
         log.info("Deleting product by id: {}", id);
         return productRepository.findById(id)
                 .map(product -> {
                     productRepository.delete(product);
+                    eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
                     return true;
                 })
                 .orElse(false);
     }
 
+    @CachePut(cacheNames = CatalogCacheConfig.PRODUCTS, key = "#id")
+    @Transactional
     public Optional<ProductDto> updateProduct(Integer id, RegisterProductRequest registerProductRequest) {
         log.info("Updating product with id: {} with details: {}", id, registerProductRequest);
 
@@ -70,12 +305,11 @@ public class ProductService {
                     // Handle category update if category_id is provided
                     Category categoryToSet = null;
                     if (registerProductRequest.getCategory_id() != null) {
-                        var updatedProduct = productMapper.toEntity(registerProductRequest);
-                        if (updatedProduct.getCategory() == null) {
-                            log.info("Invalid category_id provided for product update: {}", registerProductRequest.getCategory_id());
-                            throw new IllegalArgumentException("Invalid category_id provided");
-                        }
-                        categoryToSet = updatedProduct.getCategory();
+                        categoryToSet = categoryRegistry.reference(registerProductRequest.getCategory_id())
+                                .orElseThrow(() -> {
+                                    log.info("Invalid category_id provided for product update: {}", registerProductRequest.getCategory_id());
+                                    return new IllegalArgumentException("Invalid category_id provided");
+                                });
                     }
 
                     // Use Product's business logic method
@@ -86,10 +320,52 @@ public class ProductService {
                     );
 
                     productRepository.save(product);
-                    return productMapper.toDto(product);
+                    var productDto = productMapper.toDto(product);
+                    eventPublisher.publishEvent(ProductChangedEvent.saved(productDto));
+                    return productDto;
                 });
     }
 
+    /**
+     * Full-text search over product names, answered from the in-memory inverted index.
+     */
+    public List<ProductDto> searchProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.info("Searching products for: {}", query);
+        return productSearchIndex.search(query, limit);
+    }
+
+    /**
+     * Type-ahead completions for product names, answered from the in-memory prefix index.
+     */
+    public List<String> autocompleteProductNames(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return productNameAutocomplete.complete(prefix, limit);
+    }
+
+    /**
+     * Product counts per category and per price bucket, answered from the in-memory facet counters.
+     */
+    public ProductFacetsResponse getProductFacets() {
+        var counts = productFacetIndex.counts();
+        return new ProductFacetsResponse(
+                counts.total(),
+                counts.categories().entrySet().stream()
+                        .map(entry -> new ProductFacetsResponse.CategoryFacet(entry.getKey(), entry.getValue()))
+                        .toList(),
+                counts.priceBuckets().stream()
+                        .map(bucket -> new ProductFacetsResponse.PriceBucketFacet(bucket.min(), bucket.max(), bucket.count()))
+                        .toList()
+        );
+    }
+
     // Legacy methods for demonstration purposes - can be kept or moved to a separate demo service
     public void find(String name) {
         productRepository.findByNameContainingIgnoreCase(name).forEach(System.out::println);
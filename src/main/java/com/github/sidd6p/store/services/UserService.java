@@ -12,7 +12,6 @@ import com.github.sidd6p.store.repositories.AddressRepository;
 import com.github.sidd6p.store.repositories.ProfileRepository;
 import com.github.sidd6p.store.repositories.UserRepository;
 import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
@@ -21,6 +20,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
@@ -38,16 +38,16 @@ public class UserService implements UserDetailsService {
     private final EntityManager entityManager;
     private final PasswordEncoder passwordEncoder;
 
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers(String sortBy) {
         if (!Set.of("id", "name", "email").contains(sortBy)) {
             sortBy = "id";
         }
         log.info("Getting all users sorted by: {}", sortBy);
-        return userRepository.findAll(Sort.by(sortBy).ascending()).stream()
-                .map(userMapper::toDto)
-                .toList();
+        return userRepository.findAllDtos(Sort.by(sortBy).ascending());
     }
 
+    @Transactional(readOnly = true)
     public Optional<UserDto> getUserById(long id) {
         log.info("Getting user with id: {}", id);
         return userRepository.findById(id)
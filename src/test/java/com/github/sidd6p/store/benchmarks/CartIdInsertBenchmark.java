@@ -0,0 +1,124 @@
+package com.github.sidd6p.store.benchmarks;
+
+import com.github.sidd6p.store.entities.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures inserts into a large carts-like table (BINARY(16) primary key, as in MySQL) with random (version 4)
+ * ids against time-ordered (version 7) ids. Throughput is reported per inserted row.
+ * <p>
+ * By default the table lives in a local H2 file database whose page cache is much smaller than the table, as a
+ * buffer pool is for a large carts table. To measure InnoDB itself, point it at a MySQL database with
+ * {@code -Dbench.jdbcUrl=jdbc:mysql://localhost:3307/store_api?rewriteBatchedStatements=true -Dbench.user=...
+ * -Dbench.password=...}; it creates and drops its own cart_id_bench table.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.github.sidd6p.store.benchmarks.CartIdInsertBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartIdInsertBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "timeOrdered"})
+    public String ids;
+
+    // Rows inserted with the same scheme before measuring
+    @Param({"1000000"})
+    public int existingRows;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        var url = System.getProperty("bench.jdbcUrl");
+        if (url == null) {
+            directory = Files.createTempDirectory("cart-id-bench");
+            // CACHE_SIZE is in KB
+            url = "jdbc:h2:file:" + directory.resolve("carts") + ";CACHE_SIZE=8192";
+        }
+        connection = DriverManager.getConnection(url, System.getProperty("bench.user", "sa"), System.getProperty("bench.password", ""));
+        connection.setAutoCommit(false);
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS cart_id_bench");
+            statement.execute("CREATE TABLE cart_id_bench (id BINARY(16) NOT NULL PRIMARY KEY, date_created DATE NOT NULL)");
+        }
+        connection.commit();
+        insert = connection.prepareStatement("INSERT INTO cart_id_bench (id, date_created) VALUES (?, ?)");
+        for (int i = 0; i < existingRows; i += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException, IOException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("DROP TABLE cart_id_bench");
+        }
+        connection.commit();
+        connection.close();
+        if (directory != null) {
+            try (var files = Files.walk(directory)) {
+                for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    // One transaction per batch, as the hot cart store flushes new carts
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        var today = Date.valueOf(LocalDate.now());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setBytes(1, bytes(nextId()));
+            insert.setDate(2, today);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private UUID nextId() {
+        return ids.equals("timeOrdered") ? TimeOrderedUuidGenerator.nextUuid() : UUID.randomUUID();
+    }
+
+    // Same byte order Hibernate uses for a UUID in a BINARY(16) column
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartIdInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.sidd6p.store.benchmarks;
+
+import com.github.sidd6p.store.entities.Cart;
+import com.github.sidd6p.store.entities.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures per-product line lookups on carts of different sizes, as done by a burst of cart updates or a
+ * checkout touching every line. {@code linearScanEveryLine} reproduces the previous stream-based lookup
+ * for comparison with the indexed one.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.github.sidd6p.store.benchmarks.CartLineLookupBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartLineLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lines;
+
+    private Cart cart;
+    private Product extraProduct;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        for (int i = 1; i <= lines; i++) {
+            cart.addProduct(product(i));
+        }
+        extraProduct = product(lines + 1);
+    }
+
+    @Benchmark
+    public int lookupEveryLine() {
+        int quantity = 0;
+        for (int id = 1; id <= lines; id++) {
+            quantity += cart.findCartItemByProductId(id).orElseThrow().getQuantity();
+        }
+        return quantity;
+    }
+
+    @Benchmark
+    public int linearScanEveryLine() {
+        int quantity = 0;
+        for (int id = 1; id <= lines; id++) {
+            Integer productId = id;
+            quantity += cart.getCartItems().stream()
+                    .filter(item -> item.getProduct().getId().equals(productId))
+                    .findFirst()
+                    .orElseThrow()
+                    .getQuantity();
+        }
+        return quantity;
+    }
+
+    @Benchmark
+    public boolean addThenRemoveLine() {
+        cart.addProduct(extraProduct);
+        cart.updateProductQuantity(extraProduct.getId(), 2);
+        return cart.removeProduct(extraProduct.getId());
+    }
+
+    private static Product product(int id) {
+        return Product.builder().id(id).name("Product " + id).price(BigDecimal.TEN).build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartLineLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.sidd6p.store.benchmarks;
+
+import com.github.sidd6p.store.entities.Cart;
+import com.github.sidd6p.store.entities.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a cart's total after changing one line, as every cart response and checkout does.
+ * {@code recomputeTotal} reproduces the previous BigDecimal stream over all lines for comparison with the
+ * total the cart maintains in minor units. Add {@code -prof gc} to the command line to compare allocations.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.github.sidd6p.store.benchmarks.CartTotalsBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartTotalsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lines;
+
+    private Cart cart;
+    private int quantity;
+
+    @Setup
+    public void setUp() {
+        cart = new Cart();
+        for (int i = 1; i <= lines; i++) {
+            cart.addProduct(Product.builder().id(i).name("Product " + i).price(new BigDecimal(i + ".99")).build());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal maintainedTotal() {
+        cart.updateProductQuantity(1, nextQuantity());
+        return cart.getTotalPrice();
+    }
+
+    @Benchmark
+    public BigDecimal recomputeTotal() {
+        cart.updateProductQuantity(1, nextQuantity());
+        return cart.getCartItems().stream()
+                .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private int nextQuantity() {
+        quantity = quantity % 9 + 1;
+        return quantity;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartTotalsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.sidd6p.store.benchmarks;
+
+import com.github.sidd6p.store.catalog.ProductNameAutocomplete;
+import com.github.sidd6p.store.dtos.ProductDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures type-ahead lookups against a catalog of one million product names.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.github.sidd6p.store.benchmarks.ProductNameAutocompleteBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductNameAutocompleteBenchmark {
+    private static final String[] BRANDS = {"Acme", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Wonka", "Hooli"};
+    private static final String[] ADJECTIVES = {"Ultra", "Smart", "Compact", "Wireless", "Classic", "Pro", "Mini", "Eco"};
+    private static final String[] NOUNS = {"Laptop", "Phone", "Headphones", "Monitor", "Keyboard", "Camera", "Speaker", "Watch"};
+
+    @Param({"1000000"})
+    public int catalogSize;
+
+    // Short prefixes match a huge range, long ones only a handful of names
+    @Param({"a", "acme s", "acme smart lap"})
+    public String prefix;
+
+    private ProductNameAutocomplete autocomplete;
+
+    @Setup
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        var products = new ArrayList<ProductDto>(catalogSize);
+        for (int i = 1; i <= catalogSize; i++) {
+            var name = BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NOUNS[random.nextInt(NOUNS.length)] + " "
+                    + random.nextInt(100_000);
+            products.add(new ProductDto(i, name, "Electronics", BigDecimal.TEN));
+        }
+        autocomplete = new ProductNameAutocomplete();
+        autocomplete.rebuild(products);
+    }
+
+    @Benchmark
+    public Object completeTop10() {
+        return autocomplete.complete(prefix, 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductNameAutocompleteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
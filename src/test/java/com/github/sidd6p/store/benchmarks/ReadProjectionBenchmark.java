@@ -0,0 +1,142 @@
+package com.github.sidd6p.store.benchmarks;
+
+import com.github.sidd6p.store.StoreApplication;
+import com.github.sidd6p.store.dtos.AddItemToCartRequest;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.entities.User;
+import com.github.sidd6p.store.mappers.CartMapper;
+import com.github.sidd6p.store.mappers.ProductMapper;
+import com.github.sidd6p.store.mappers.UserMapper;
+import com.github.sidd6p.store.repositories.CartRepository;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import com.github.sidd6p.store.repositories.ProductJdbcRepository;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import com.github.sidd6p.store.repositories.UserRepository;
+import com.github.sidd6p.store.services.CartService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the entity + MapStruct read paths with the DTO projection queries used by
+ * ProductService.getAllProducts, UserService.getAllUsers and CartService.getCartById.
+ * <p>
+ * Runs against the in-memory H2 database of the "test" profile. The interesting column is
+ * {@code gc.alloc.rate.norm} (bytes allocated per call) reported by the GC profiler.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.github.sidd6p.store.benchmarks.ReadProjectionBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadProjectionBenchmark {
+    private static final int PRODUCT_COUNT = 1_000;
+    private static final int USER_COUNT = 1_000;
+    private static final int CART_LINES = 20;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ProductRepository productRepository;
+    private UserRepository userRepository;
+    private CartRepository cartRepository;
+    private ProductMapper productMapper;
+    private UserMapper userMapper;
+    private CartMapper cartMapper;
+    private UUID cartId;
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments outrank spring.profiles.active=dev from application.yaml
+        context = new SpringApplicationBuilder(StoreApplication.class)
+                .run("--spring.profiles.active=test", "--server.port=0", "--logging.level.root=WARN");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        productRepository = context.getBean(ProductRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        cartRepository = context.getBean(CartRepository.class);
+        productMapper = context.getBean(ProductMapper.class);
+        userMapper = context.getBean(UserMapper.class);
+        cartMapper = context.getBean(CartMapper.class);
+
+        var category = context.getBean(CategoryRepository.class).save(new Category("Benchmark"));
+        var rows = new ArrayList<ProductJdbcRepository.ProductRow>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            rows.add(new ProductJdbcRepository.ProductRow(null, "Product " + i, new BigDecimal(i % 100 + ".99"), category.getId()));
+        }
+        var productIds = context.getBean(ProductJdbcRepository.class).insertAll(rows);
+
+        var users = new ArrayList<User>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(User.builder().name("User " + i).email("user" + i + "@example.com").password("secret").build());
+        }
+        userRepository.saveAll(users);
+
+        var cartService = context.getBean(CartService.class);
+        cartId = cartService.createCart().getId();
+        for (int i = 0; i < CART_LINES; i++) {
+            var request = new AddItemToCartRequest();
+            request.setProductId(productIds.get(i));
+            cartService.addToCart(cartId, request);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object productsEntities() {
+        return transactionTemplate.execute(status -> productRepository.findAll().stream().map(productMapper::toDto).toList());
+    }
+
+    @Benchmark
+    public Object productsProjection() {
+        return transactionTemplate.execute(status -> productRepository.findAllDtos());
+    }
+
+    @Benchmark
+    public Object usersEntities() {
+        return transactionTemplate.execute(status -> userRepository.findAll(Sort.by("id")).stream().map(userMapper::toDto).toList());
+    }
+
+    @Benchmark
+    public Object usersProjection() {
+        return transactionTemplate.execute(status -> userRepository.findAllDtos(Sort.by("id")));
+    }
+
+    @Benchmark
+    public Object cartEntities() {
+        return transactionTemplate.execute(status -> cartRepository.findById(cartId).map(cartMapper::toDto));
+    }
+
+    @Benchmark
+    public Object cartProjection() {
+        return transactionTemplate.execute(status -> cartMapper.toDto(cartRepository.findLinesByCartId(cartId)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReadProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
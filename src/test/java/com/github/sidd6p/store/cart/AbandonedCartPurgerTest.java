@@ -0,0 +1,137 @@
+package com.github.sidd6p.store.cart;
+
+import com.github.sidd6p.store.dtos.AddItemToCartRequest;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.entities.Cart;
+import com.github.sidd6p.store.entities.Order;
+import com.github.sidd6p.store.entities.OrderStatus;
+import com.github.sidd6p.store.entities.User;
+import com.github.sidd6p.store.membership.CartIdFilter;
+import com.github.sidd6p.store.repositories.CartRepository;
+import com.github.sidd6p.store.repositories.OrderRepository;
+import com.github.sidd6p.store.repositories.UserRepository;
+import com.github.sidd6p.store.services.CartService;
+import com.github.sidd6p.store.services.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Purges old carts in chunks smaller than their number, so the job has to page through them.
+ */
+@SpringBootTest(properties = {
+        "cart.purge.enabled=true",
+        "cart.purge.chunkSize=2",
+        "cart.purge.pause=0ms"
+})
+@ActiveProfiles("test")
+class AbandonedCartPurgerTest {
+
+    @Autowired
+    private AbandonedCartPurger purger;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartIdFilter cartIdFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Test
+    void deletesOldCartsExceptThoseWithPendingOrders() {
+        var today = LocalDate.now();
+        var product = productService.createProduct(product());
+
+        var abandoned = new ArrayList<UUID>();
+        for (int i = 0; i < 5; i++) {
+            var cartId = cart(today.minusDays(60 + i));
+            cartService.addToCart(cartId, addRequest(product.getId()));
+            abandoned.add(cartId);
+        }
+        var paid = cart(today.minusDays(60));
+        var pending = cart(today.minusDays(60));
+        cartService.addToCart(pending, addRequest(product.getId()));
+        var recent = cart(today.minusDays(5));
+        cartService.addToCart(recent, addRequest(product.getId()));
+
+        var customer = userRepository.save(User.builder().name("Purge customer").email("purge-" + UUID.randomUUID() + "@example.com").build());
+        order(customer, paid, OrderStatus.PAID);
+        order(customer, pending, OrderStatus.PENDING);
+
+        var deleted = purger.purge(today.minusDays(30));
+
+        assertThat(deleted).isEqualTo(6);
+        assertThat(cartRepository.findAllById(abandoned)).isEmpty();
+        assertThat(cartRepository.existsById(paid)).isFalse();
+        assertThat(cartService.getCartById(pending).orElseThrow().getCartItems()).hasSize(1);
+        assertThat(cartService.getCartById(recent).orElseThrow().getCartItems()).hasSize(1);
+
+        assertThat(meterRegistry.get("cart.purge.deleted").tag("table", "carts").counter().count()).isEqualTo(6);
+        assertThat(meterRegistry.get("cart.purge.deleted").tag("table", "cart_items").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("cart.purge.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void scheduledJobsRunOnMoreThanOneThread() {
+        // The purge pauses between chunks, which must not hold back the hot cart flush
+        assertThat(taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize()).isGreaterThan(1);
+    }
+
+    // Saved directly to backdate it, so it has to be registered in the cart id filter like CartService does
+    private UUID cart(LocalDate dateCreated) {
+        var cartId = cartRepository.save(Cart.builder().dateCreated(dateCreated).build()).getId();
+        cartIdFilter.add(cartId);
+        return cartId;
+    }
+
+    private void order(User customer, UUID cartId, OrderStatus status) {
+        orderRepository.save(Order.builder()
+                .customerId(customer.getId())
+                .cartId(cartId)
+                .status(status)
+                .createdAt(LocalDateTime.now())
+                .totalPrice(BigDecimal.TEN)
+                .build());
+    }
+
+    private static RegisterProductRequest product() {
+        var request = new RegisterProductRequest();
+        request.setName("Purge product");
+        request.setPrice(new BigDecimal("5.00"));
+        return request;
+    }
+
+    private static AddItemToCartRequest addRequest(int productId) {
+        var request = new AddItemToCartRequest();
+        request.setProductId(productId);
+        return request;
+    }
+}
@@ -0,0 +1,229 @@
+package com.github.sidd6p.store.cart;
+
+import com.github.sidd6p.store.dtos.AddItemToCartRequest;
+import com.github.sidd6p.store.dtos.CartItemDto;
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.dtos.UpdateCartItemRequest;
+import com.github.sidd6p.store.membership.CartIdFilter;
+import com.github.sidd6p.store.services.CartService;
+import com.github.sidd6p.store.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Cart changes made through CartService with the hot cart store enabled. The scheduled flush is pushed out of
+ * the way, so each test decides when carts are written; an idle timeout of zero makes every flush evict all
+ * clean carts.
+ */
+@SpringBootTest(properties = {
+        "cart.hotStore.enabled=true",
+        "cart.hotStore.flushInterval=1h",
+        "cart.hotStore.idleTimeout=0s"
+})
+@ActiveProfiles("test")
+class HotCartStoreTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private HotCartStore hotCartStore;
+
+    @Autowired
+    private CartIdFilter cartIdFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductDto first;
+    private ProductDto second;
+
+    @BeforeEach
+    void createProducts() {
+        first = productService.createProduct(product("Hot cart product 1"));
+        second = productService.createProduct(product("Hot cart product 2"));
+    }
+
+    @Test
+    void changesStayInMemoryUntilFlushedAndSurviveEviction() {
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, addRequest(first));
+        cartService.addToCart(cartId, addRequest(first));
+        cartService.addToCart(cartId, addRequest(second));
+        cartService.updateCartItemQuantity(cartId, second.getId(), quantity(5));
+
+        assertThat(cartRows(cartId)).isZero();
+        assertThat(cartService.getCartById(cartId).orElseThrow().getPrice()).isEqualByComparingTo("35.00");
+
+        hotCartStore.flushDirty();
+
+        assertThat(cartRows(cartId)).isOne();
+        assertThat(storedQuantity(cartId, first)).isEqualTo(2);
+        assertThat(storedQuantity(cartId, second)).isEqualTo(5);
+        assertThat(hotCartStore.read(cartId)).isPresent();
+
+        // Evicted by the flush above; read back from the database
+        hotCartStore.flushDirty();
+        var reloaded = cartService.getCartById(cartId).orElseThrow();
+        assertThat(reloaded.getCartItems())
+                .extracting(item -> item.getProduct().getId(), CartItemDto::getQuantity)
+                .containsExactlyInAnyOrder(tuple(first.getId(), 2), tuple(second.getId(), 5));
+    }
+
+    @Test
+    void flushOfOneCartWritesItsLatestState() {
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, addRequest(first));
+        hotCartStore.flush(cartId);
+        cartService.removeCartItem(cartId, first.getId());
+        cartService.addToCart(cartId, addRequest(second));
+
+        // As checkout does before reading the cart
+        hotCartStore.flush(cartId);
+
+        assertThat(storedQuantity(cartId, first)).isNull();
+        assertThat(storedQuantity(cartId, second)).isEqualTo(1);
+    }
+
+    @Test
+    void shutdownFlushWritesDirtyCarts() {
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, addRequest(first));
+        hotCartStore.flush(cartId);
+        cartService.clearCart(cartId);
+
+        hotCartStore.flushAll();
+
+        assertThat(cartRows(cartId)).isOne();
+        assertThat(storedQuantity(cartId, first)).isNull();
+    }
+
+    @Test
+    void productDeletedWhileInAHotCartIsDroppedOnFlush() {
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, addRequest(first));
+        cartService.addToCart(cartId, addRequest(second));
+        var otherCartId = cartService.createCart().getId();
+        cartService.addToCart(otherCartId, addRequest(second));
+
+        assertThat(productService.deleteProductById(first.getId())).isTrue();
+        hotCartStore.flushDirty();
+
+        assertThat(storedQuantity(cartId, first)).isNull();
+        assertThat(storedQuantity(cartId, second)).isEqualTo(1);
+        assertThat(storedQuantity(otherCartId, second)).isEqualTo(1);
+        assertThat(hotCartStore.read(cartId).orElseThrow().quantities()).containsExactly(Map.entry(second.getId(), 1));
+    }
+
+    @Test
+    void cartThatCannotBeWrittenDoesNotHoldBackTheOthers() {
+        var brokenCartId = cartService.createCart().getId();
+        cartService.addToCart(brokenCartId, addRequest(first));
+        hotCartStore.flush(brokenCartId);
+        cartService.addToCart(brokenCartId, addRequest(second));
+        // Deleted behind the store's back: its lines now violate the carts foreign key
+        jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id = ?", brokenCartId);
+        jdbcTemplate.update("DELETE FROM carts WHERE id = ?", brokenCartId);
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, addRequest(first));
+
+        hotCartStore.flushDirty();
+
+        assertThat(storedQuantity(cartId, first)).isEqualTo(1);
+        assertThat(cartRows(brokenCartId)).isZero();
+
+        // Still dirty, so written by a later flush once it can be
+        jdbcTemplate.update("INSERT INTO carts (id, date_created) VALUES (?, CURRENT_DATE)", brokenCartId);
+        hotCartStore.flushDirty();
+
+        assertThat(storedQuantity(brokenCartId, first)).isEqualTo(1);
+        assertThat(storedQuantity(brokenCartId, second)).isEqualTo(1);
+    }
+
+    @Test
+    void cartBeingPurgedIsNotLoaded() {
+        var heldCartId = cartService.createCart().getId();
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, addRequest(first));
+        // Writes both carts and evicts them
+        hotCartStore.flushDirty();
+        cartService.addToCart(heldCartId, addRequest(second));
+
+        assertThat(hotCartStore.beginPurge(List.of(cartId, heldCartId))).containsExactly(cartId);
+        assertThat(cartService.getCartById(cartId)).isEmpty();
+
+        // Not deleted after all, e.g. because an order became pending
+        hotCartStore.endPurge(List.of(cartId));
+        assertThat(cartService.getCartById(cartId)).isPresent();
+    }
+
+    @Test
+    void failedOperationLeavesTheCartUnchanged() {
+        var cartId = cartService.createCart().getId();
+        cartService.addToCart(cartId, addRequest(first));
+
+        assertThatThrownBy(() -> cartService.updateCartItemQuantity(cartId, second.getId(), quantity(3)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(hotCartStore.read(cartId).orElseThrow().quantities()).containsExactly(Map.entry(first.getId(), 1));
+    }
+
+    @Test
+    void cartsCreatedInMemoryAreKnownToTheIdFilter() {
+        for (int i = 0; i < 200; i++) {
+            var cartId = cartService.createCart().getId();
+            assertThat(cartIdFilter.mightExist(cartId)).isTrue();
+        }
+    }
+
+    @Test
+    void unknownCartIsEmpty() {
+        assertThat(cartService.getCartById(UUID.randomUUID())).isEmpty();
+        assertThat(cartService.addToCart(UUID.randomUUID(), addRequest(first))).isEmpty();
+    }
+
+    private long cartRows(UUID cartId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts WHERE id = ?", Long.class, cartId);
+    }
+
+    private Integer storedQuantity(UUID cartId, ProductDto product) {
+        return jdbcTemplate.query("SELECT quantity FROM cart_items WHERE cart_id = ? AND product_id = ?",
+                rs -> rs.next() ? rs.getInt(1) : null, cartId, product.getId());
+    }
+
+    private static RegisterProductRequest product(String name) {
+        var request = new RegisterProductRequest();
+        request.setName(name);
+        request.setPrice(new BigDecimal("5.00"));
+        return request;
+    }
+
+    private static AddItemToCartRequest addRequest(ProductDto product) {
+        var request = new AddItemToCartRequest();
+        request.setProductId(product.getId());
+        return request;
+    }
+
+    private static UpdateCartItemRequest quantity(int quantity) {
+        var request = new UpdateCartItemRequest();
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.sidd6p.store.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogCsvReaderTest {
+
+    @Test
+    void splitsPlainFieldsAndKeepsEmptyOnes() throws IOException {
+        assertThat(readAll("1,Laptop,999.99,Electronics\n2,,5,\n"))
+                .containsExactly(
+                        List.of("1", "Laptop", "999.99", "Electronics"),
+                        List.of("2", "", "5", ""));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasLineBreaksAndDoubledQuotes() throws IOException {
+        try (var csv = new CatalogCsvReader(new StringReader(
+                "1,\"Desk, oak\",\"He said \"\"hi\"\"\"\n2,\"Two\nlines\",x\n3,last,y\n"))) {
+            assertThat(csv.readRecord()).containsExactly("1", "Desk, oak", "He said \"hi\"");
+            assertThat(csv.getRecordLine()).isEqualTo(1);
+            assertThat(csv.readRecord()).containsExactly("2", "Two\nlines", "x");
+            assertThat(csv.getRecordLine()).isEqualTo(2);
+            // Line numbers count the break inside the quoted field
+            assertThat(csv.readRecord()).containsExactly("3", "last", "y");
+            assertThat(csv.getRecordLine()).isEqualTo(4);
+            assertThat(csv.readRecord()).isNull();
+        }
+    }
+
+    @Test
+    void quotesInsideAnUnquotedFieldAreKept() throws IOException {
+        assertThat(readAll("1,5\" screen,\"\"\n")).containsExactly(List.of("1", "5\" screen", ""));
+    }
+
+    @Test
+    void acceptsCrlfAndAMissingFinalLineBreak() throws IOException {
+        assertThat(readAll("id,name\r\n1,\"a\r\nb\"\r\n2,c"))
+                .containsExactly(List.of("id", "name"), List.of("1", "a\r\nb"), List.of("2", "c"));
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuotedField() {
+        assertThatThrownBy(() -> readAll("1,ok\n2,\"never closed\n3,x\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    private static List<List<String>> readAll(String text) throws IOException {
+        var records = new ArrayList<List<String>>();
+        try (var csv = new CatalogCsvReader(new StringReader(text))) {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import com.github.sidd6p.store.services.ProductBulkService;
+import com.github.sidd6p.store.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Encoded catalog responses: conditional and compressed GET /products, reads racing a bulk write and
+ * concurrent rebuilds of one entry. Bulk writes commit two products per chunk so a read can be made
+ * between chunks.
+ */
+@SpringBootTest(properties = "catalog.bulk.chunkSize=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class CatalogResponseCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ReadAfterCommit readAfterCommit;
+
+    private Category category;
+
+    @BeforeEach
+    void createCategory() {
+        category = categoryRepository.save(Category.builder().name("Cached " + System.nanoTime()).build());
+    }
+
+    @Test
+    void currentEtagIsAnsweredWithNotModified() throws Exception {
+        productService.createProduct(product("Etag product", category));
+
+        var plain = mockMvc.perform(get("/products").param("category", category.getName()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse();
+        var etag = plain.getHeader(HttpHeaders.ETAG);
+        assertThat(plain.getContentAsString()).contains("Etag product");
+
+        mockMvc.perform(get("/products").param("category", category.getName())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/products").param("category", category.getName())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+                .andExpect(status().isNotModified());
+
+        productService.createProduct(product("Second etag product", category));
+
+        var changed = mockMvc.perform(get("/products").param("category", category.getName())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(changed.getContentAsString()).contains("Second etag product");
+    }
+
+    @Test
+    void gzipRepresentationHasItsOwnEtag() throws Exception {
+        productService.createProduct(product("Gzip product", category));
+
+        var plain = mockMvc.perform(get("/products").param("category", category.getName()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        var gzipped = mockMvc.perform(get("/products").param("category", category.getName())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, GZIP"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        var etag = gzipped.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotEqualTo(plain.getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"");
+        assertThat(gunzip(gzipped.getContentAsByteArray())).isEqualTo(plain.getContentAsString());
+
+        // Either representation shows the client holds the current content
+        mockMvc.perform(get("/products").param("category", category.getName())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, plain.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void readRightAfterACommittedChunkIncludesIt() {
+        productService.createProduct(product("Existing product", category));
+        // Caches the category list and its response at the current version
+        assertThat(read(category)).contains("Existing product");
+
+        readAfterCommit.category = category.getName();
+        try {
+            productBulkService.createProducts(List.of(
+                    product("Bulk product 1", category), product("Bulk product 2", category),
+                    product("Bulk product 3", category)));
+        } finally {
+            readAfterCommit.category = null;
+        }
+
+        assertThat(readAfterCommit.bodies).hasSize(2);
+        assertThat(readAfterCommit.bodies.get(0)).contains("Bulk product 2").doesNotContain("Bulk product 3");
+        assertThat(readAfterCommit.bodies.get(1)).contains("Bulk product 3");
+        assertThat(read(category)).contains("Existing product", "Bulk product 1", "Bulk product 3");
+    }
+
+    @Test
+    void concurrentMissesBuildTheResponseOnce() throws Exception {
+        var builds = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var responses = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        await(start);
+                        return catalogResponseCache.get("test:single-flight", () -> {
+                            builds.incrementAndGet();
+                            sleep();
+                            return List.of("body");
+                        });
+                    }, executor))
+                    .toList();
+            start.countDown();
+
+            var first = responses.get(0).join();
+            assertThat(responses).allSatisfy(response -> assertThat(response.join()).isSameAs(first));
+            assertThat(builds).hasValue(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void failedBuildIsRethrownAndNotCached() {
+        assertThatThrownBy(() -> catalogResponseCache.get("test:failing", () -> {
+            throw new IllegalArgumentException("Broken body");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("Broken body");
+
+        var response = catalogResponseCache.get("test:failing", () -> List.of("body"));
+        assertThat(new String(response.json(), StandardCharsets.UTF_8)).isEqualTo("[\"body\"]");
+    }
+
+    private String read(Category category) {
+        return read(catalogResponseCache, productService, category.getName());
+    }
+
+    private static String read(CatalogResponseCache cache, ProductService productService, String category) {
+        var response = cache.get("category:" + category.toLowerCase(), () -> productService.getAllProducts(category));
+        return new String(response.json(), StandardCharsets.UTF_8);
+    }
+
+    private static RegisterProductRequest product(String name, Category category) {
+        var request = new RegisterProductRequest();
+        request.setName(name);
+        request.setPrice(new BigDecimal("3.00"));
+        request.setCategory_id(category.getId());
+        return request;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @TestConfiguration
+    static class ReadAfterCommitConfig {
+        @Bean
+        ReadAfterCommit readAfterCommit(CatalogResponseCache catalogResponseCache, ProductService productService) {
+            return new ReadAfterCommit(catalogResponseCache, productService);
+        }
+    }
+
+    /**
+     * Reads the category response once every after-commit listener of a bulk chunk has run, as a request
+     * arriving right after the commit would. The read runs on another thread, outside the finished transaction.
+     */
+    static class ReadAfterCommit {
+        private final CatalogResponseCache catalogResponseCache;
+        private final ProductService productService;
+        private final List<String> bodies = new CopyOnWriteArrayList<>();
+        private volatile String category;
+
+        ReadAfterCommit(CatalogResponseCache catalogResponseCache, ProductService productService) {
+            this.catalogResponseCache = catalogResponseCache;
+            this.productService = productService;
+        }
+
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+        public void onProductBatchSaved(ProductBatchSavedEvent event) {
+            var category = this.category;
+            if (category != null) {
+                bodies.add(CompletableFuture.supplyAsync(() -> read(catalogResponseCache, productService, category)).join());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductFacetIndexTest {
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new ProductFacetIndex(new BigDecimal[]{price("50"), price("10"), price("10")});
+        index.rebuild(List.of(
+                product(1, "9.99", "Books"),
+                product(2, "10.00", "Toys"),
+                product(3, "49.99", "Books"),
+                product(4, "50.00", null),
+                product(5, null, "Toys")));
+    }
+
+    @Test
+    void countsProductsPerCategoryAndPriceBucket() {
+        var counts = index.counts();
+
+        assertThat(counts.total()).isEqualTo(5);
+        assertThat(counts.categories()).containsExactly(Map.entry("Books", 2), Map.entry("Toys", 2));
+        // Bounds are sorted and deduplicated; a price on a bound counts towards the bucket starting there
+        assertThat(counts.priceBuckets()).containsExactly(
+                new ProductFacetIndex.PriceBucket(BigDecimal.ZERO, price("10"), 1),
+                new ProductFacetIndex.PriceBucket(price("10"), price("50"), 2),
+                new ProductFacetIndex.PriceBucket(price("50"), null, 1));
+    }
+
+    @Test
+    void updatesMoveCountsAndDropEmptyCategories() {
+        index.upsert(product(2, "75.00", "Books"));
+        index.remove(5);
+        index.upsertAll(List.of(product(6, "5.00", "Garden"), product(1, "12.00", "Garden")));
+
+        var counts = index.counts();
+        assertThat(counts.total()).isEqualTo(5);
+        assertThat(counts.categories()).containsExactly(Map.entry("Books", 2), Map.entry("Garden", 2));
+        assertThat(counts.priceBuckets()).extracting(ProductFacetIndex.PriceBucket::count).containsExactly(1, 2, 2);
+    }
+
+    @Test
+    void removingAnUnknownProductChangesNothing() {
+        index.remove(99);
+
+        assertThat(index.counts().total()).isEqualTo(5);
+    }
+
+    @Test
+    void rejectsBoundsThatAreNotPositive() {
+        assertThatThrownBy(() -> new ProductFacetIndex(new BigDecimal[]{BigDecimal.ZERO, price("10")}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ProductDto product(int id, String price, String category) {
+        return new ProductDto(id, "Product " + id, category, price == null ? null : price(price));
+    }
+
+    private static BigDecimal price(String value) {
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.entities.Product;
+import com.github.sidd6p.store.mappers.ProductMapper;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductIndexMaintainerTest {
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductMapper productMapper = mock(ProductMapper.class);
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private final ProductPriceIndex priceIndex = new ProductPriceIndex();
+    private ProductIndexMaintainer maintainer;
+
+    @BeforeEach
+    void createMaintainer() {
+        when(productMapper.toDto(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            return new ProductDto(product.getId(), product.getName(), null, product.getPrice());
+        });
+        maintainer = new ProductIndexMaintainer(List.of(searchIndex, priceIndex), productRepository, productMapper,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void changesCommittedWhileTheSnapshotIsReadAreReplayedOnTopOfIt() {
+        when(productRepository.streamAll()).thenAnswer(invocation -> {
+            // Committed while the snapshot is being read, which does not see them
+            maintainer.onProductChanged(ProductChangedEvent.saved(product(3, "Desk lamp", "30.00")));
+            maintainer.onProductChanged(ProductChangedEvent.deleted(2));
+            maintainer.onProductBatchSaved(new ProductBatchSavedEvent(List.of(product(4, "Floor lamp", "40.00"))));
+            return Stream.of(entity(1, "Chair", "10.00"), entity(2, "Table lamp", "20.00"));
+        });
+
+        maintainer.rebuildAll();
+
+        assertThat(searchIndex.search("lamp", 10)).extracting(ProductDto::getId).containsExactlyInAnyOrder(3, 4);
+        assertThat(priceIndex.findInRange(BigDecimal.ZERO, new BigDecimal("100"), null, null, 0, 10).products())
+                .extracting(ProductDto::getId)
+                .containsExactly(1, 3, 4);
+    }
+
+    @Test
+    void changesAfterTheBuildAreAppliedRightAway() {
+        when(productRepository.streamAll()).thenAnswer(invocation -> Stream.of(entity(1, "Chair", "10.00")));
+        maintainer.rebuildAll();
+
+        maintainer.onProductChanged(ProductChangedEvent.saved(product(1, "Armchair", "10.00")));
+
+        assertThat(searchIndex.search("chair", 10)).isEmpty();
+        assertThat(searchIndex.search("armchair", 10)).extracting(ProductDto::getId).containsExactly(1);
+    }
+
+    private static Product entity(int id, String name, String price) {
+        return Product.builder().id(id).name(name).price(new BigDecimal(price)).build();
+    }
+
+    private static ProductDto product(int id, String name, String price) {
+        return new ProductDto(id, name, null, new BigDecimal(price));
+    }
+}
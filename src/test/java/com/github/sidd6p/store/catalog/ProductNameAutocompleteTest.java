@@ -0,0 +1,74 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductNameAutocompleteTest {
+    private ProductNameAutocomplete autocomplete;
+
+    @BeforeEach
+    void buildIndex() {
+        autocomplete = new ProductNameAutocomplete();
+        autocomplete.rebuild(List.of(
+                product(1, "Chair"),
+                product(2, "Chaise longue"),
+                product(3, "Café table"),
+                product(4, "chair"),
+                product(5, "Cabinet"),
+                product(6, null)));
+    }
+
+    @Test
+    void completesPrefixesAlphabeticallyIgnoringCaseAndAccents() {
+        assertThat(autocomplete.complete("CHA", 10)).containsExactly("Chair", "Chaise longue");
+        assertThat(autocomplete.complete("cafe", 10)).containsExactly("Café table");
+        assertThat(autocomplete.complete("ca", 2)).containsExactly("Cabinet", "Café table");
+        assertThat(autocomplete.complete(" ", 10)).isEmpty();
+        assertThat(autocomplete.complete("sofa", 10)).isEmpty();
+    }
+
+    @Test
+    void namesThatFoldTheSameAreReturnedOnce() {
+        assertThat(autocomplete.complete("chair", 10)).containsExactly("Chair");
+        // Both entries are kept: removing one still leaves the name
+        autocomplete.remove(1);
+        assertThat(autocomplete.complete("chair", 10)).containsExactly("chair");
+    }
+
+    @Test
+    void singleUpdatesMoveEntries() {
+        autocomplete.upsert(product(5, "Stool"));
+        autocomplete.upsert(product(7, "Cabin bed"));
+        autocomplete.remove(2);
+
+        assertThat(autocomplete.complete("ca", 10)).containsExactly("Cabin bed", "Café table");
+        assertThat(autocomplete.complete("st", 10)).containsExactly("Stool");
+        assertThat(autocomplete.complete("chai", 10)).containsExactly("Chair");
+        assertThat(autocomplete.size()).isEqualTo(5);
+    }
+
+    @Test
+    void batchUpdatesMergeLikeSingleOnes() {
+        autocomplete.upsertAll(List.of(
+                product(3, "Armchair"),
+                product(8, "Bench"),
+                product(8, "Bench seat"),
+                product(9, "Cabinet")));
+
+        assertThat(autocomplete.complete("", 10)).isEmpty();
+        assertThat(autocomplete.complete("a", 10)).containsExactly("Armchair");
+        assertThat(autocomplete.complete("b", 10)).containsExactly("Bench seat");
+        assertThat(autocomplete.complete("ca", 10)).containsExactly("Cabinet");
+        assertThat(autocomplete.size()).isEqualTo(7);
+    }
+
+    private static ProductDto product(int id, String name) {
+        return new ProductDto(id, name, null, BigDecimal.ONE);
+    }
+}
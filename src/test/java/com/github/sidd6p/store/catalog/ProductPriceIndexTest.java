@@ -0,0 +1,115 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductPriceIndexTest {
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new ProductPriceIndex();
+        index.rebuild(List.of(
+                product(1, "9.99", "Books"),
+                product(2, "10.00", "Toys"),
+                product(3, "10.00", "Books"),
+                product(4, "10.00", "Books"),
+                product(5, "15.50", "Toys"),
+                product(6, "20.00", "Books"),
+                product(7, "20.01", "Books"),
+                product(8, "12.00", null)));
+    }
+
+    @Test
+    void rangeBoundsAreInclusive() {
+        assertThat(ids(index.findInRange(price("10.00"), price("20.00"), null, null, 0, 100)))
+                .containsExactly(2, 3, 4, 8, 5, 6);
+        assertThat(ids(index.findInRange(price("20.00"), price("20.00"), null, null, 0, 100))).containsExactly(6);
+        assertThat(ids(index.findInRange(price("20.02"), price("100"), null, null, 0, 100))).isEmpty();
+    }
+
+    @Test
+    void boundsBetweenCentsOnlyMatchPricesInside() {
+        // Rounded to the nearest cent these would be 10.00 and 20.01
+        assertThat(ids(index.findInRange(price("9.995"), price("20.005"), null, null, 0, 100)))
+                .containsExactly(2, 3, 4, 8, 5, 6);
+        assertThat(ids(index.findInRange(price("9.991"), price("9.999"), null, null, 0, 100))).isEmpty();
+    }
+
+    @Test
+    void boundsUpToTheMaximumPriceAreAnswered() {
+        assertThat(ids(index.findInRange(price("20.00"), ProductPriceIndex.MAX_PRICE, null, null, 0, 100)))
+                .containsExactly(6, 7);
+        assertThat(ids(index.findInRange(ProductPriceIndex.MAX_PRICE, ProductPriceIndex.MAX_PRICE, null, null, 0, 100)))
+                .isEmpty();
+        // A cursor beyond the range ends it instead of overflowing
+        assertThat(ids(index.findInRange(price("0"), price("100"), null, price("1e30"), 1, 100))).isEmpty();
+        assertThatThrownBy(() -> index.findInRange(price("0"), ProductPriceIndex.MAX_PRICE.add(price("0.01")),
+                null, null, 0, 100)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void categoryFilterIgnoresCaseAndOtherCategories() {
+        assertThat(ids(index.findInRange(price("0"), price("100"), "books", null, 0, 100)))
+                .containsExactly(1, 3, 4, 6, 7);
+        assertThat(ids(index.findInRange(price("10.00"), price("16"), "TOYS", null, 0, 100))).containsExactly(2, 5);
+        assertThat(ids(index.findInRange(price("0"), price("100"), "Garden", null, 0, 100))).isEmpty();
+    }
+
+    @Test
+    void pagesContinueAfterTheCursorAcrossEqualPrices() {
+        var pages = new ArrayList<List<Integer>>();
+        BigDecimal afterPrice = null;
+        int afterId = 0;
+        ProductPriceIndex.Page page;
+        do {
+            page = index.findInRange(price("10.00"), price("20.01"), "Books", afterPrice, afterId, 2);
+            pages.add(ids(page));
+            var last = page.products().get(page.products().size() - 1);
+            afterPrice = last.getPrice();
+            afterId = last.getId();
+        } while (page.hasNext());
+
+        // Products 3 and 4 share a price and are split across pages by id
+        assertThat(pages).containsExactly(List.of(3, 4), List.of(6, 7));
+        assertThat(index.findInRange(price("10.00"), price("20.00"), "Books", price("10.00"), 3, 1))
+                .satisfies(next -> {
+                    assertThat(ids(next)).containsExactly(4);
+                    assertThat(next.hasNext()).isTrue();
+                });
+    }
+
+    @Test
+    void updatesMoveProductsBetweenCategoriesAndPrices() {
+        index.upsert(product(3, "30.00", "Toys"));
+        index.remove(4);
+
+        assertThat(ids(index.findInRange(price("0"), price("100"), "Books", null, 0, 100))).containsExactly(1, 6, 7);
+        assertThat(ids(index.findInRange(price("0"), price("100"), "Toys", null, 0, 100))).containsExactly(2, 5, 3);
+
+        index.remove(2);
+        index.remove(5);
+        index.remove(3);
+        assertThat(ids(index.findInRange(price("0"), price("100"), "Toys", null, 0, 100))).isEmpty();
+    }
+
+    private static List<Integer> ids(ProductPriceIndex.Page page) {
+        return page.products().stream().map(ProductDto::getId).toList();
+    }
+
+    private static ProductDto product(int id, String price, String category) {
+        return new ProductDto(id, "Product " + id, category, price(price));
+    }
+
+    private static BigDecimal price(String value) {
+        return new BigDecimal(value);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.sidd6p.store.catalog;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+                product(1, "Red wooden chair"),
+                product(2, "Wooden chair"),
+                product(3, "Red lamp"),
+                product(4, "Café table"),
+                product(5, "Garden chair")));
+    }
+
+    @Test
+    void ranksByMatchedTokensThenByFewestOtherTokensThenByName() {
+        assertThat(ids(index.search("red chair", 10))).containsExactly(1, 5, 3, 2);
+        assertThat(ids(index.search("wooden chair", 10))).containsExactly(2, 1, 5);
+    }
+
+    @Test
+    void matchingIgnoresCaseAccentsAndPunctuation() {
+        assertThat(ids(index.search("CAFE", 10))).containsExactly(4);
+        assertThat(ids(index.search("café, table!", 10))).containsExactly(4);
+        assertThat(index.search("  ", 10)).isEmpty();
+        assertThat(index.search("sofa", 10)).isEmpty();
+    }
+
+    @Test
+    void limitKeepsTheBestMatches() {
+        assertThat(ids(index.search("chair red", 2))).containsExactly(1, 5);
+        assertThat(index.search("chair", 0)).isEmpty();
+    }
+
+    @Test
+    void updatesReplaceTheTokensOfTheOldName() {
+        index.upsert(product(3, "Blue lamp"));
+        index.remove(5);
+        index.upsert(product(6, "Red sofa"));
+
+        assertThat(ids(index.search("red", 10))).containsExactly(6, 1);
+        assertThat(ids(index.search("lamp", 10))).containsExactly(3);
+        assertThat(index.search("garden", 10)).isEmpty();
+    }
+
+    private static List<Integer> ids(List<ProductDto> products) {
+        return products.stream().map(ProductDto::getId).toList();
+    }
+
+    private static ProductDto product(int id, String name) {
+        return new ProductDto(id, name, null, BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.sidd6p.store.config;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.entities.Product;
+import com.github.sidd6p.store.membership.ProductIdFilter;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import com.github.sidd6p.store.services.ProductService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the read/write routing against two in-memory H2 databases: the test profile's database as the primary
+ * and a second one as the replica. The replica holds copies of the test rows under different names, so every
+ * read shows which database answered it.
+ */
+@SpringBootTest(properties = {
+        // Only the tables read by these tests and by read-only repository calls at startup.
+        // The backslashes survive properties parsing as H2's escaped statement separator.
+        "spring.datasource.replica.url=jdbc:h2:mem:store_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;" +
+                "INIT=CREATE TABLE IF NOT EXISTS categories (id INT PRIMARY KEY, name VARCHAR(255))\\\\;" +
+                "CREATE TABLE IF NOT EXISTS products (id INT PRIMARY KEY, name VARCHAR(255), price NUMERIC(38, 2), category_id INT)",
+        "spring.datasource.replica.username=sa",
+        "spring.datasource.replica.password=",
+        "spring.datasource.replica.retryAfter=1h"
+})
+@ActiveProfiles("test")
+class DataSourceRoutingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductIdFilter productIdFilter;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String categoryName;
+    private Integer productId;
+
+    @BeforeEach
+    void createRowsOnBothDatabases() {
+        categoryName = "Routing " + UUID.randomUUID();
+        var category = new Category(categoryName);
+        var product = Product.builder()
+                .name("Primary product")
+                .price(BigDecimal.TEN)
+                .category(category)
+                .build();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            categoryRepository.save(category);
+            productRepository.save(product);
+        });
+        productId = product.getId();
+        // Saved past ProductService, so the id filter is told about the product by hand
+        productIdFilter.upsert(new ProductDto(productId, product.getName(), categoryName, product.getPrice()));
+
+        // The replica is not written by the application, so its copy is created by hand
+        var replica = new JdbcTemplate(replicaDataSource);
+        replica.update("INSERT INTO categories (id, name) VALUES (?, ?)", category.getId(), categoryName);
+        replica.update("INSERT INTO products (id, name, price, category_id) VALUES (?, ?, ?, ?)",
+                productId, "Replica product", BigDecimal.TEN, category.getId());
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(nameReadIn(true)).isEqualTo("Replica product");
+        assertThat(nameReadIn(false)).isEqualTo("Primary product");
+        assertThat(productRepository.findDtosByIdIn(List.of(productId)).get(0).getName()).isEqualTo("Primary product");
+
+        // Uncached ProductService reads are read-only transactions
+        assertThat(productService.getProductSlice(categoryName, null, 10, "id").getContent())
+                .singleElement()
+                .satisfies(product -> assertThat(product.getName()).isEqualTo("Replica product"));
+    }
+
+    @Test
+    void cacheFillingReadsUseThePrimary() {
+        assertThat(productService.getAllProducts(categoryName))
+                .singleElement()
+                .satisfies(product -> assertThat(product.getName()).isEqualTo("Primary product"));
+        assertThat(productService.getProductById(productId))
+                .hasValueSatisfying(product -> assertThat(product.getName()).isEqualTo("Primary product"));
+        assertThat(productService.getProductsByIds(List.of(productId)).getProducts())
+                .singleElement()
+                .satisfies(product -> assertThat(product.getName()).isEqualTo("Primary product"));
+    }
+
+    @Test
+    void eachPoolHasItsOwnMetrics() {
+        assertThat(nameReadIn(true)).isEqualTo("Replica product");
+
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge()).isNotNull();
+    }
+
+    @Test
+    @DirtiesContext
+    void readOnlyTransactionsFallBackToThePrimaryWhenTheReplicaIsDown() {
+        replicaDataSource.close();
+
+        assertThat(nameReadIn(true)).isEqualTo("Primary product");
+        assertThat(nameReadIn(false)).isEqualTo("Primary product");
+    }
+
+    private String nameReadIn(boolean readOnly) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> productRepository.findDtosByIdIn(List.of(productId)).get(0).getName());
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.sidd6p.store.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the application's DataSource so tests can count every statement sent through it, whether it comes
+ * from Hibernate or from a JdbcTemplate. A JDBC batch counts once, like one prepared statement.
+ */
+@TestConfiguration
+public class StatementCountingDataSourceConfig {
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    /**
+     * Number of statements prepared since the last {@link #reset()}.
+     */
+    public static class StatementCounter {
+        private final AtomicLong count = new AtomicLong();
+
+        public void reset() {
+            count.set(0);
+        }
+
+        public long count() {
+            return count.get();
+        }
+    }
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    // Static, so the post-processor is registered before the DataSource is created
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(StatementCounter statementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new CountingDataSource(dataSource, statementCounter.count);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // A DelegatingDataSource, so Spring Boot still finds the pool behind it for its metrics
+    private static final class CountingDataSource extends DelegatingDataSource {
+        private final AtomicLong count;
+
+        CountingDataSource(DataSource target, AtomicLong count) {
+            super(target);
+            this.count = count;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName())) {
+                            count.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
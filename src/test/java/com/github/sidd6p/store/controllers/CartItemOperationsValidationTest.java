@@ -0,0 +1,88 @@
+package com.github.sidd6p.store.controllers;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.services.CartService;
+import com.github.sidd6p.store.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PATCH /carts/{id}/items rejects malformed operations with 400 before anything is applied.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+class CartItemOperationsValidationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    private UUID cartId;
+    private ProductDto product;
+
+    @BeforeEach
+    void createCart() {
+        var request = new RegisterProductRequest();
+        request.setName("Validated product");
+        request.setPrice(new BigDecimal("2.00"));
+        product = productService.createProduct(request);
+        cartId = cartService.createCart().getId();
+    }
+
+    @Test
+    void operationsWithoutTypeOrProductAreRejected() throws Exception {
+        apply("[{\"productId\": " + product.getId() + "}]").andExpect(status().isBadRequest());
+        apply("[{\"type\": \"ADD\"}]").andExpect(status().isBadRequest());
+        apply("[null]").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void quantitiesBelowOneAreRejected() throws Exception {
+        apply("[{\"type\": \"ADD\", \"productId\": " + product.getId() + ", \"quantity\": 0}]")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details['operations[0].quantity']").value("quantity must be at least 1"));
+        apply("[{\"type\": \"SET_QUANTITY\", \"productId\": " + product.getId() + ", \"quantity\": -1}]")
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void addsBeyondTheLargestQuantityAreRejected() throws Exception {
+        apply("[{\"type\": \"ADD\", \"productId\": " + product.getId() + ", \"quantity\": " + Integer.MAX_VALUE + "}, "
+                + "{\"type\": \"ADD\", \"productId\": " + product.getId() + "}]")
+                .andExpect(status().isBadRequest());
+
+        // Nothing of the rejected batch was applied
+        apply("[{\"type\": \"ADD\", \"productId\": " + product.getId() + ", \"quantity\": 3}]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems[0].quantity").value(3));
+    }
+
+    private ResultActions apply(String operations) throws Exception {
+        return mockMvc.perform(patch("/carts/{cartId}/items", cartId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(operations));
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.sidd6p.store.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    void idsAreVersion7WithTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        var id = TimeOrderedUuidGenerator.nextUuid();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // A burst may borrow a few milliseconds ahead through the counter
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 100);
+    }
+
+    @Test
+    void idsIncreaseAsBinary16Keys() {
+        // Far more than the 4096 ids one millisecond can hold, so the counter overflows into the timestamp
+        var previous = bytes(TimeOrderedUuidGenerator.nextUuid());
+        for (int i = 0; i < 100_000; i++) {
+            var next = bytes(TimeOrderedUuidGenerator.nextUuid());
+            // MySQL compares BINARY(16) as unsigned bytes
+            assertThat(Arrays.compareUnsigned(next, previous)).isPositive();
+            previous = next;
+        }
+    }
+
+    // The bytes Hibernate writes to a BINARY(16) column
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+}
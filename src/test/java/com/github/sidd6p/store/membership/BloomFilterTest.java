@@ -0,0 +1,69 @@
+package com.github.sidd6p.store.membership;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void keepsEveryKeyWhenGrowingFarPastTheExpectedSize() {
+        var filter = new BloomFilter(1_000, FALSE_POSITIVE_RATE);
+        long initialSize = filter.sizeInBytes();
+
+        // Sequential keys, like product ids, and random ones, like cart ids
+        for (int i = 0; i < 50_000; i++) {
+            filter.add(0, i);
+        }
+        var random = new UUID[50_000];
+        for (int i = 0; i < random.length; i++) {
+            random[i] = UUID.randomUUID();
+            filter.add(random[i].getMostSignificantBits(), random[i].getLeastSignificantBits());
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(filter.mightContain(0, i)).isTrue();
+        }
+        for (var key : random) {
+            assertThat(filter.mightContain(key.getMostSignificantBits(), key.getLeastSignificantBits())).isTrue();
+        }
+        assertThat(filter.sizeInBytes()).isGreaterThan(initialSize);
+    }
+
+    @Test
+    void falsePositiveRateStaysBelowTheConfiguredOneAtAndBeyondTheExpectedSize() {
+        var filter = new BloomFilter(10_000, FALSE_POSITIVE_RATE);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(0, i);
+        }
+        assertThat(falsePositiveRate(filter)).isLessThanOrEqualTo(FALSE_POSITIVE_RATE);
+
+        // Several stages deep
+        for (int i = 10_000; i < 150_000; i++) {
+            filter.add(0, i);
+        }
+        assertThat(falsePositiveRate(filter)).isLessThanOrEqualTo(FALSE_POSITIVE_RATE);
+    }
+
+    @Test
+    void rejectsRatesOutsideZeroToOne() {
+        assertThatThrownBy(() -> new BloomFilter(10, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Share of keys never added (ids above those added) that the filter reports as possibly present
+    private static double falsePositiveRate(BloomFilter filter) {
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain(0, 1_000_000_000L + i)) {
+                falsePositives++;
+            }
+        }
+        return (double) falsePositives / PROBES;
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.sidd6p.store.membership;
+
+import com.github.sidd6p.store.catalog.ProductBatchSavedEvent;
+import com.github.sidd6p.store.dtos.BulkProductResult;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.services.CartService;
+import com.github.sidd6p.store.services.CatalogImportService;
+import com.github.sidd6p.store.services.ProductBulkService;
+import com.github.sidd6p.store.services.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ids created through each write path must never be reported missing, not even while the write is still
+ * committing. The filters are sized for a handful of ids, so these tests also run them through several
+ * growth stages.
+ */
+@SpringBootTest(properties = {
+        "membership.expectedProducts=4",
+        "membership.expectedCarts=4"
+})
+@ActiveProfiles("test")
+class MembershipFilterTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductIdFilter productIdFilter;
+
+    @Autowired
+    private CartIdFilter cartIdFilter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BeforeCommit beforeCommit;
+
+    @Test
+    void productsCreatedOneByOneAreKnown() {
+        for (int i = 0; i < 100; i++) {
+            var product = productService.createProduct(product("Filtered product " + i));
+            assertThat(productIdFilter.mightExist(product.getId())).isTrue();
+        }
+    }
+
+    @Test
+    void productIsKnownBeforeItsTransactionCommits() {
+        var known = transactionTemplate.execute(status -> {
+            var product = productService.createProduct(product("Uncommitted filtered product"));
+            return productIdFilter.mightExist(product.getId());
+        });
+
+        assertThat(known).isTrue();
+    }
+
+    @Test
+    void bulkChunkIsKnownBeforeItCommits() {
+        var requests = new ArrayList<RegisterProductRequest>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(product("Uncommitted bulk filtered product " + i));
+        }
+
+        productBulkService.createProducts(requests);
+
+        assertThat(beforeCommit.unknownIds).isEmpty();
+        assertThat(beforeCommit.checkedIds).isNotEmpty();
+    }
+
+    @Test
+    void productsCreatedInBulkAreKnown() {
+        var requests = new ArrayList<RegisterProductRequest>();
+        for (int i = 0; i < 500; i++) {
+            requests.add(product("Bulk filtered product " + i));
+        }
+
+        var response = productBulkService.createProducts(requests);
+
+        assertThat(response.getResults())
+                .extracting(BulkProductResult::getStatus)
+                .containsOnly(BulkProductResult.Status.CREATED);
+        assertThat(response.getResults())
+                .allSatisfy(result -> assertThat(productIdFilter.mightExist(result.getId())).isTrue());
+    }
+
+    @Test
+    void importedProductsAreKnown() throws IOException {
+        int firstId = 1_600_000_000 + ThreadLocalRandom.current().nextInt(100_000) * 1_000;
+        var csv = new StringBuilder("id,name,price,category\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append(firstId + i).append(",Imported filtered product ").append(i).append(",1.00,\n");
+        }
+
+        var report = catalogImportService.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getInserted()).isEqualTo(500);
+        for (int i = 0; i < 500; i++) {
+            assertThat(productIdFilter.mightExist(firstId + i)).isTrue();
+        }
+    }
+
+    @Test
+    void createdCartsAreKnown() {
+        for (int i = 0; i < 200; i++) {
+            UUID cartId = cartService.createCart().getId();
+            assertThat(cartIdFilter.mightExist(cartId)).isTrue();
+            assertThat(cartService.getCartById(cartId)).isPresent();
+        }
+    }
+
+    private static RegisterProductRequest product(String name) {
+        var request = new RegisterProductRequest();
+        request.setName(name);
+        request.setPrice(new BigDecimal("5.00"));
+        return request;
+    }
+
+    @TestConfiguration
+    static class BeforeCommitConfig {
+        @Bean
+        BeforeCommit beforeCommit(ProductIdFilter productIdFilter) {
+            return new BeforeCommit(productIdFilter);
+        }
+    }
+
+    /**
+     * Checks the ids of every saved batch while its transaction is still open.
+     */
+    static class BeforeCommit {
+        private final ProductIdFilter productIdFilter;
+        private final List<Integer> checkedIds = new CopyOnWriteArrayList<>();
+        private final List<Integer> unknownIds = new CopyOnWriteArrayList<>();
+
+        BeforeCommit(ProductIdFilter productIdFilter) {
+            this.productIdFilter = productIdFilter;
+        }
+
+        @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+        public void onProductBatchSaved(ProductBatchSavedEvent event) {
+            event.products().forEach(product -> {
+                checkedIds.add(product.getId());
+                if (!productIdFilter.mightExist(product.getId())) {
+                    unknownIds.add(product.getId());
+                }
+            });
+        }
+    }
+}
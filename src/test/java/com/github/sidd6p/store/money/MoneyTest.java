@@ -0,0 +1,39 @@
+package com.github.sidd6p.store.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void amountsRoundToTheNearestCent() {
+        assertThat(Money.toMinorUnits(new BigDecimal("12.34"))).isEqualTo(1234);
+        assertThat(Money.toMinorUnits(new BigDecimal("7"))).isEqualTo(700);
+        assertThat(Money.toMinorUnits(new BigDecimal("0.005"))).isEqualTo(1);
+        assertThat(Money.toMinorUnits(new BigDecimal("0.004"))).isZero();
+    }
+
+    @Test
+    void roundingModeIsApplied() {
+        assertThat(Money.toMinorUnits(new BigDecimal("9.991"), RoundingMode.CEILING)).isEqualTo(1000);
+        assertThat(Money.toMinorUnits(new BigDecimal("9.999"), RoundingMode.FLOOR)).isEqualTo(999);
+    }
+
+    @Test
+    void minorUnitsConvertBackWithTwoDecimals() {
+        assertThat(Money.fromMinorUnits(1234)).isEqualTo(new BigDecimal("12.34"));
+        assertThat(Money.fromMinorUnits(0)).isEqualTo(new BigDecimal("0.00"));
+        assertThat(Money.toMinorUnits(Money.MAX_AMOUNT)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void amountsAboveTheMaximumDoNotFit() {
+        assertThatThrownBy(() -> Money.toMinorUnits(Money.MAX_AMOUNT.add(new BigDecimal("0.01"))))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
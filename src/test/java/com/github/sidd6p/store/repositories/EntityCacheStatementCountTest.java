@@ -0,0 +1,97 @@
+package com.github.sidd6p.store.repositories;
+
+import com.github.sidd6p.store.config.StatementCountingDataSourceConfig;
+import com.github.sidd6p.store.config.StatementCountingDataSourceConfig.StatementCounter;
+import com.github.sidd6p.store.dtos.AddItemToCartRequest;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.entities.Product;
+import com.github.sidd6p.store.services.CartService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements of adding an item to a cart through {@link CartService}, with a cold and a warm
+ * second-level cache, against the in-memory H2 database of the test profile. Every statement sent through the
+ * DataSource is counted, including the line upsert sent with JdbcTemplate.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(StatementCountingDataSourceConfig.class)
+@ActiveProfiles("test")
+@Slf4j
+class EntityCacheStatementCountTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private SessionFactory sessionFactory;
+    private UUID cartId;
+    private Integer productId;
+
+    @BeforeEach
+    void createCartAndProduct() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        productId = transactionTemplate.execute(status -> {
+            var category = categoryRepository.save(new Category("Cached category " + UUID.randomUUID()));
+            return productRepository.save(Product.builder()
+                    .name("Product to add").price(new BigDecimal("9.99")).category(category).build()).getId();
+        });
+        cartId = cartService.createCart().getId();
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    @Test
+    void warmAddToCartSkipsTheProductQuery() {
+        long cold = countStatements(() -> assertThat(cartService.addToCart(cartId, addRequest())).isPresent());
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        long warm = countStatements(() -> assertThat(cartService.addToCart(cartId, addRequest()))
+                .hasValueSatisfying(response -> assertThat(response.getQuantity()).isEqualTo(2)));
+        log.info("Add to cart: {} statements cold, {} statements warm ({} second-level cache hits)",
+                cold, warm, statistics.getSecondLevelCacheHitCount());
+
+        // Upsert of the line and SELECT of its quantity; the product and its category come from the cache
+        assertThat(cold).isEqualTo(3);
+        assertThat(warm).isEqualTo(2);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    private long countStatements(Runnable action) {
+        statementCounter.reset();
+        action.run();
+        return statementCounter.count();
+    }
+
+    private AddItemToCartRequest addRequest() {
+        var request = new AddItemToCartRequest();
+        request.setProductId(productId);
+        return request;
+    }
+}
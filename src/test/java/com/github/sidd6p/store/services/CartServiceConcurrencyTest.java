@@ -0,0 +1,97 @@
+package com.github.sidd6p.store.services;
+
+import com.github.sidd6p.store.dtos.AddItemToCartRequest;
+import com.github.sidd6p.store.dtos.CartItemDto;
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Adds the same products to one cart from many threads at once. Every add must count exactly once and
+ * none may fail on the unique (cart_id, product_id) key.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CartServiceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ADDS_PER_THREAD = 25;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void concurrentAddsOfTheSameProductAllCount() throws Exception {
+        var cartId = cartService.createCart().getId();
+        var first = productService.createProduct(product("Concurrent product 1"));
+        var second = productService.createProduct(product("Concurrent product 2"));
+
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var start = new CountDownLatch(1);
+            var results = new ArrayList<Future<?>>();
+            for (int t = 0; t < THREADS; t++) {
+                // Half the threads start with the other product so both lines are first inserted concurrently
+                var products = t % 2 == 0 ? List.of(first, second) : List.of(second, first);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        for (var product : products) {
+                            assertThat(cartService.addToCart(cartId, addRequest(product))).isPresent();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var result : results) {
+                // Rethrows any failure from the worker thread
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var cart = cartService.getCartById(cartId).orElseThrow();
+        assertThat(cart.getCartItems()).hasSize(2);
+        assertThat(cart.getCartItems())
+                .extracting(CartItemDto::getQuantity)
+                .containsOnly(THREADS * ADDS_PER_THREAD);
+    }
+
+    @Test
+    void addToUnknownCartIsEmpty() {
+        var product = productService.createProduct(product("Concurrent product 3"));
+
+        assertThat(cartService.addToCart(UUID.randomUUID(), addRequest(product))).isEmpty();
+    }
+
+    private static RegisterProductRequest product(String name) {
+        var request = new RegisterProductRequest();
+        request.setName(name);
+        request.setPrice(new BigDecimal("5.00"));
+        return request;
+    }
+
+    private static AddItemToCartRequest addRequest(ProductDto product) {
+        var request = new AddItemToCartRequest();
+        request.setProductId(product.getId());
+        return request;
+    }
+}
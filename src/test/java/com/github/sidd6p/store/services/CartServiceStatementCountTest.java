@@ -0,0 +1,182 @@
+package com.github.sidd6p.store.services;
+
+import com.github.sidd6p.store.config.StatementCountingDataSourceConfig;
+import com.github.sidd6p.store.config.StatementCountingDataSourceConfig.StatementCounter;
+import com.github.sidd6p.store.dtos.AddItemToCartRequest;
+import com.github.sidd6p.store.dtos.CartItemDto;
+import com.github.sidd6p.store.dtos.CartItemOperation;
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.dtos.UpdateCartItemRequest;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Counts the SQL statements sent by each cart mutation, including those flushed at commit and those sent
+ * with JdbcTemplate, against the in-memory H2 database of the test profile. Products are served from the
+ * second-level cache, as they are once warm in production.
+ */
+@SpringBootTest
+@Import(StatementCountingDataSourceConfig.class)
+@ActiveProfiles("test")
+class CartServiceStatementCountTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private ProductDto first;
+    private ProductDto second;
+
+    @BeforeEach
+    void createProducts() {
+        first = productService.createProduct(product("Statement count product 1"));
+        second = productService.createProduct(product("Statement count product 2"));
+        // Inserted products are not cached until first read
+        productRepository.findById(first.getId());
+        productRepository.findById(second.getId());
+    }
+
+    @Test
+    void eachMutationSendsOnlyItsOwnStatements() {
+        // INSERT cart
+        var cart = countStatements(1, () -> cartService.createCart());
+        assertThat(cart.getId()).isNotNull();
+        assertThat(cart.getDateCreated()).isEqualTo(LocalDate.now());
+
+        // Upsert line, SELECT its quantity: neither the cart nor its items are loaded, and the product comes
+        // from the second-level cache
+        var added = countStatements(2, () -> cartService.addToCart(cart.getId(), addRequest(first))).orElseThrow();
+        assertThat(added.getQuantity()).isEqualTo(1);
+        countStatements(2, () -> cartService.addToCart(cart.getId(), addRequest(second)));
+        added = countStatements(2, () -> cartService.addToCart(cart.getId(), addRequest(second))).orElseThrow();
+        assertThat(added.getQuantity()).isEqualTo(2);
+
+        // SELECT cart with items, UPDATE item
+        var quantity = new UpdateCartItemRequest();
+        quantity.setQuantity(3);
+        var updated = countStatements(2, () -> cartService.updateCartItemQuantity(cart.getId(), second.getId(), quantity))
+                .orElseThrow();
+        assertThat(updated.getPrice()).isEqualByComparingTo("20.00");
+
+        // SELECT cart with items, DELETE item
+        assertThat(countStatements(2, () -> cartService.removeCartItem(cart.getId(), first.getId()))).isTrue();
+
+        // SELECT existence, DELETE items
+        assertThat(countStatements(2, () -> cartService.clearCart(cart.getId()))).isTrue();
+
+        var stored = cartService.getCartById(cart.getId()).orElseThrow();
+        assertThat(stored.getDateCreated()).isEqualTo(cart.getDateCreated());
+        assertThat(stored.getCartItems()).isEmpty();
+    }
+
+    @Test
+    void batchOperationsLoadProductsOnceAndWriteEachLineOnce() {
+        var cart = cartService.createCart();
+        cartService.addToCart(cart.getId(), addRequest(first));
+
+        var operations = List.of(
+                new CartItemOperation(CartItemOperation.Type.ADD, second.getId(), 2),
+                new CartItemOperation(CartItemOperation.Type.SET_QUANTITY, first.getId(), 4),
+                new CartItemOperation(CartItemOperation.Type.ADD, second.getId(), null),
+                new CartItemOperation(CartItemOperation.Type.REMOVE, Integer.MAX_VALUE, null));
+
+        // SELECT cart with items, SELECT new products, INSERT second line, UPDATE first line
+        var updated = countStatements(4, () -> cartService.applyItemOperations(cart.getId(), operations))
+                .orElseThrow();
+        assertThat(updated.getCartItems())
+                .extracting(item -> item.getProduct().getId(), CartItemDto::getQuantity)
+                .containsExactlyInAnyOrder(tuple(first.getId(), 4), tuple(second.getId(), 3));
+        assertThat(updated.getPrice()).isEqualByComparingTo("35.00");
+    }
+
+    @Test
+    void invalidBatchOperationRejectsTheWholeBatch() {
+        var cart = cartService.createCart();
+        cartService.addToCart(cart.getId(), addRequest(first));
+
+        var operations = List.of(
+                new CartItemOperation(CartItemOperation.Type.REMOVE, first.getId(), null),
+                new CartItemOperation(CartItemOperation.Type.SET_QUANTITY, second.getId(), 2));
+
+        assertThatThrownBy(() -> cartService.applyItemOperations(cart.getId(), operations))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not found in cart");
+        assertThat(cartService.getCartById(cart.getId()).orElseThrow().getCartItems()).hasSize(1);
+    }
+
+    @Test
+    void coldCartIsLoadedWithItemsProductsAndCategoriesInOneQuery() {
+        var cart = cartService.createCart();
+        var lines = 5;
+        for (int i = 0; i < lines; i++) {
+            var request = product("Statement count product in its own category " + i);
+            request.setCategory_id(categoryRepository.save(new Category("Statement count category " + UUID.randomUUID())).getId());
+            cartService.addToCart(cart.getId(), addRequest(productService.createProduct(request)));
+        }
+        // Nothing cached: products and categories must come from the cart query itself, not one query each
+        entityManagerFactory.getCache().evictAll();
+
+        var quantity = new UpdateCartItemRequest();
+        quantity.setQuantity(2);
+        var lineProduct = cartService.getCartById(cart.getId()).orElseThrow().getCartItems().iterator().next().getProduct();
+
+        // SELECT cart with items, products and categories, UPDATE item
+        var updated = countStatements(2, () -> cartService.updateCartItemQuantity(cart.getId(), lineProduct.getId(), quantity))
+                .orElseThrow();
+        assertThat(updated.getCartItems()).hasSize(lines);
+        assertThat(updated.getCartItems()).allSatisfy(item -> assertThat(item.getProduct().getCategoryName()).isNotNull());
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> operation) {
+        statementCounter.reset();
+        var result = operation.get();
+        assertThat(statementCounter.count()).isEqualTo(expected);
+        return result;
+    }
+
+    private static RegisterProductRequest product(String name) {
+        var request = new RegisterProductRequest();
+        request.setName(name);
+        request.setPrice(new BigDecimal("5.00"));
+        return request;
+    }
+
+    private static AddItemToCartRequest addRequest(ProductDto product) {
+        var request = new AddItemToCartRequest();
+        request.setProductId(product.getId());
+        return request;
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.sidd6p.store.services;
+
+import com.github.sidd6p.store.catalog.CategoryRegistry;
+import com.github.sidd6p.store.dtos.CatalogImportReport;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs catalog imports against the in-memory H2 database of the test profile, with chunks of two rows so that
+ * a few lines already span several chunks. Rows use explicit ids far above the generated ones.
+ */
+@SpringBootTest(properties = "catalog.bulk.chunkSize=2")
+@ActiveProfiles("test")
+class CatalogImportServiceTest {
+    private static final String HEADER = "id,name,price,category\n";
+    // Too large for the price column, so the chunk holding it fails
+    private static final String OVERFLOWING_PRICE = "1" + "0".repeat(37);
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+
+    private int id;
+    private String category;
+
+    @BeforeEach
+    void pickIds() {
+        id = 1_500_000_000 + ThreadLocalRandom.current().nextInt(100_000) * 100;
+        category = "Imported " + UUID.randomUUID();
+    }
+
+    @Test
+    void rowsAreClassifiedAgainstTheStoredCatalog() throws IOException {
+        var first = HEADER
+                + (id + 1) + ",First,10.00," + category + "\n"
+                + (id + 2) + ",Second,12.999," + category + "\n"
+                + (id + 3) + ",Third,1,\n";
+        assertReport(importCsv(first), 0, 0, 3, 0, 1);
+        // Stored at the column's scale, and hashed at it too, so importing the same file again changes nothing
+        assertThat(productRepository.findById(id + 2).orElseThrow().getPrice()).isEqualByComparingTo("13.00");
+        assertReport(importCsv(first), 3, 0, 0, 0, 0);
+
+        var second = HEADER
+                // One chunk: the repeated row updates the row inserted just before it
+                + (id + 5) + ",Fifth,5," + category + "\n"
+                + (id + 5) + ",Fifth renamed,5," + category + "\n"
+                + (id + 1) + ",First,11.00," + category + "\n"
+                + (id + 2) + ",Second,13," + category + "\n"
+                + (id + 4) + ",Fourth,4,\n"
+                + "not-a-number,Broken,1,\n";
+        assertReport(importCsv(second), 1, 2, 2, 1, 0);
+        assertThat(productRepository.findById(id + 5).orElseThrow().getName()).isEqualTo("Fifth renamed");
+        assertThat(productRepository.findById(id + 1).orElseThrow().getPrice()).isEqualByComparingTo("11.00");
+        // Only the repeated row changes again: its first copy differs from the stored second one
+        assertReport(importCsv(second), 3, 2, 0, 1, 0);
+    }
+
+    @Test
+    void failedChunkCreatesNothingAndItsRowsAreRetriedWhenTheyRepeat() throws IOException {
+        var report = importCsv(HEADER
+                + (id + 1) + ",New category product,3," + category + "\n"
+                + (id + 2) + ",Too expensive," + OVERFLOWING_PRICE + ",\n"
+                + (id + 3) + ",Later product,3,\n");
+        assertReport(report, 0, 0, 1, 2, 0);
+        assertThat(productRepository.existsById(id + 1)).isFalse();
+        assertThat(categoryRegistry.findByName(category)).isEmpty();
+        assertThat(StreamSupport.stream(categoryRepository.findAll().spliterator(), false).map(Category::getName))
+                .doesNotContain(category);
+
+        // The failed rows were never stored, so repeating them later in a file inserts them
+        report = importCsv(HEADER
+                + (id + 1) + ",New category product,3," + category + "\n"
+                + (id + 2) + ",Too expensive," + OVERFLOWING_PRICE + ",\n"
+                + (id + 1) + ",New category product,3," + category + "\n"
+                + (id + 3) + ",Later product,3,\n");
+        assertReport(report, 1, 0, 1, 2, 1);
+        assertThat(productRepository.findById(id + 1).orElseThrow().getCategory().getName()).isEqualTo(category);
+        assertThat(categoryRegistry.findByName(category)).isPresent();
+    }
+
+    private CatalogImportReport importCsv(String csv) throws IOException {
+        return catalogImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertReport(CatalogImportReport report, long unchanged, long updated, long inserted,
+                                     long failed, long categoriesCreated) {
+        assertThat(report)
+                .extracting(CatalogImportReport::getUnchanged, CatalogImportReport::getUpdated,
+                        CatalogImportReport::getInserted, CatalogImportReport::getFailed,
+                        CatalogImportReport::getCategoriesCreated)
+                .containsExactly(unchanged, updated, inserted, failed, categoriesCreated);
+    }
+}
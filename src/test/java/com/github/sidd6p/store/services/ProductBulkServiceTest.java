@@ -0,0 +1,92 @@
+package com.github.sidd6p.store.services;
+
+import com.github.sidd6p.store.dtos.BulkProductResult;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import com.github.sidd6p.store.dtos.UpdateProductRequest;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput test for the bulk product endpoints, run against the in-memory H2 database of the test profile.
+ * Rows per second are logged so runs can be compared; the assertions only check correctness.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class ProductBulkServiceTest {
+    private static final int PRODUCT_COUNT = 10_000;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void createsAndUpdatesProductsInBatches() {
+        var category = categoryRepository.save(Category.builder().name("Bulk").build());
+
+        var creates = new ArrayList<RegisterProductRequest>(PRODUCT_COUNT + 1);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            var request = new RegisterProductRequest();
+            request.setName("Bulk product " + i);
+            request.setPrice(new BigDecimal(i % 100 + ".99"));
+            request.setCategory_id(category.getId());
+            creates.add(request);
+        }
+        var invalid = new RegisterProductRequest();
+        invalid.setName("Unknown category");
+        invalid.setPrice(BigDecimal.ONE);
+        invalid.setCategory_id(-1);
+        creates.add(invalid);
+
+        long start = System.nanoTime();
+        var created = productBulkService.createProducts(creates);
+        log.info("Inserted {} products at {} rows/s", PRODUCT_COUNT, rowsPerSecond(PRODUCT_COUNT, start));
+
+        assertThat(created.getSucceeded()).isEqualTo(PRODUCT_COUNT);
+        assertThat(created.getFailed()).isEqualTo(1);
+        assertThat(created.getResults().get(PRODUCT_COUNT).getStatus()).isEqualTo(BulkProductResult.Status.FAILED);
+        assertThat(productRepository.count()).isEqualTo(PRODUCT_COUNT);
+
+        var updates = new ArrayList<UpdateProductRequest>(PRODUCT_COUNT + 1);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            var request = new UpdateProductRequest();
+            request.setId(created.getResults().get(i).getId());
+            request.setPrice(new BigDecimal("5.00"));
+            updates.add(request);
+        }
+        var missing = new UpdateProductRequest();
+        missing.setId(Integer.MAX_VALUE);
+        missing.setName("Missing");
+        updates.add(missing);
+
+        start = System.nanoTime();
+        var updated = productBulkService.updateProducts(updates);
+        log.info("Updated {} products at {} rows/s", PRODUCT_COUNT, rowsPerSecond(PRODUCT_COUNT, start));
+
+        assertThat(updated.getSucceeded()).isEqualTo(PRODUCT_COUNT);
+        assertThat(updated.getResults().get(PRODUCT_COUNT).getStatus()).isEqualTo(BulkProductResult.Status.NOT_FOUND);
+        var sample = productRepository.findById(updates.get(0).getId()).orElseThrow();
+        assertThat(sample.getPrice()).isEqualByComparingTo("5.00");
+        assertThat(sample.getName()).isEqualTo("Bulk product 0");
+    }
+
+    private static long rowsPerSecond(int rows, long startNanos) {
+        return rows * 1_000_000_000L / Math.max(1, System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.sidd6p.store.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCursorTest {
+
+    @Test
+    void encodedCursorsDecodeToTheSamePosition() {
+        var cursors = new ProductCursor[]{
+                new ProductCursor(ProductCursor.SortKey.ID, "42", 42),
+                new ProductCursor(ProductCursor.SortKey.PRICE, "1234.50", 7),
+                // Separators and non-ASCII characters in names survive the round trip
+                new ProductCursor(ProductCursor.SortKey.NAME, "Desk | oak, \"large\" – ünïcode", 3),
+                ProductCursor.start(ProductCursor.SortKey.NAME)
+        };
+        for (var cursor : cursors) {
+            var token = cursor.encode();
+            assertThat(token).matches("[A-Za-z0-9_-]+");
+            assertThat(ProductCursor.decode(token, cursor.sortKey())).isEqualTo(cursor);
+        }
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        var malformed = new String[]{
+                "not base64!",
+                token("ID|12"),
+                token("COLOR|1|red"),
+                token("ID|twelve|12"),
+                token("PRICE|1|cheap"),
+                token("")
+        };
+        for (var cursor : malformed) {
+            assertThatThrownBy(() -> ProductCursor.decode(cursor, ProductCursor.SortKey.PRICE))
+                    .as(cursor)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    @Test
+    void cursorsOnlyContinueTheSortOrderTheyWereIssuedFor() {
+        var token = new ProductCursor(ProductCursor.SortKey.PRICE, "10.00", 5).encode();
+
+        assertThatThrownBy(() -> ProductCursor.decode(token, ProductCursor.SortKey.NAME))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'name'");
+    }
+
+    @Test
+    void sortKeysAreParsedIgnoringCase() {
+        assertThat(ProductCursor.SortKey.from(null)).isEqualTo(ProductCursor.SortKey.ID);
+        assertThat(ProductCursor.SortKey.from(" Price ")).isEqualTo(ProductCursor.SortKey.PRICE);
+        assertThatThrownBy(() -> ProductCursor.SortKey.from("rating"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unsupported sort");
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
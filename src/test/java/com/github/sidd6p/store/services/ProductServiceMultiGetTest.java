@@ -0,0 +1,125 @@
+package com.github.sidd6p.store.services;
+
+import com.github.sidd6p.store.config.CatalogCacheConfig;
+import com.github.sidd6p.store.dtos.BulkProductResult;
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.dtos.RegisterProductRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts the queries behind {@link ProductService#getProductsByIds} against the in-memory H2 database of the
+ * test profile: one IN query per chunk of uncached ids, none for ids already in the product cache.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ProductServiceMultiGetTest {
+    private static final int PRODUCT_COUNT = 450;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<Integer> ids;
+
+    @BeforeEach
+    void createProducts() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var requests = new ArrayList<RegisterProductRequest>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            var request = new RegisterProductRequest();
+            request.setName("Multi-get product " + i);
+            request.setPrice(new BigDecimal("2.50"));
+            requests.add(request);
+        }
+        ids = productBulkService.createProducts(requests).getResults().stream()
+                .map(BulkProductResult::getId)
+                .toList();
+        cacheManager.getCache(CatalogCacheConfig.PRODUCTS).clear();
+    }
+
+    @Test
+    void duplicatesAreAnsweredOnceInRequestOrder() {
+        var unknown = Integer.MAX_VALUE;
+        var response = productService.getProductsByIds(List.of(ids.get(1), ids.get(0), unknown, ids.get(1), unknown, ids.get(0)));
+
+        assertThat(response.getProducts()).extracting(ProductDto::getId).containsExactly(ids.get(1), ids.get(0));
+        assertThat(response.getMissingIds()).containsExactly(unknown);
+    }
+
+    @Test
+    void rejectsNullIdsAndMoreThanTheLimitOfDistinctIds() {
+        assertThatThrownBy(() -> productService.getProductsByIds(Arrays.asList(ids.get(0), null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.getProductsByIds(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        var tooMany = IntStream.rangeClosed(1, ProductService.MAX_IDS_PER_REQUEST + 1).boxed().toList();
+        assertThatThrownBy(() -> productService.getProductsByIds(tooMany))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(ProductService.MAX_IDS_PER_REQUEST));
+
+        // The limit applies after duplicates are removed
+        var repeated = Collections.nCopies(ProductService.MAX_IDS_PER_REQUEST + 1, ids.get(0));
+        assertThat(productService.getProductsByIds(repeated).getProducts()).hasSize(1);
+    }
+
+    @Test
+    void uncachedIdsAreLoadedInChunksOf200() {
+        // 200 + 200 + 50 ids
+        var response = countQueries(3, () -> productService.getProductsByIds(ids));
+        assertThat(response.getProducts()).extracting(ProductDto::getId).containsExactlyElementsOf(ids);
+        assertThat(response.getMissingIds()).isEmpty();
+
+        // Every product is cached now, for both lookups
+        countQueries(0, () -> productService.getProductsByIds(ids));
+        assertThat(countQueries(0, () -> productService.getProductById(ids.get(PRODUCT_COUNT - 1)))).isPresent();
+    }
+
+    @Test
+    void cachedIdsAreNotQueriedAgain() {
+        var cached = ids.subList(0, 150);
+        productService.getProductsByIds(cached);
+        productService.getProductById(ids.get(300));
+
+        // The first 150 ids and the 301st are cached; the other 249 are loaded in two chunks
+        var requested = new ArrayList<>(ids.subList(0, 400));
+        requested.add(ids.get(300));
+        var response = countQueries(2, () -> productService.getProductsByIds(requested));
+        assertThat(response.getProducts()).extracting(ProductDto::getId).containsExactlyElementsOf(ids.subList(0, 400));
+    }
+
+    private <T> T countQueries(long expected, Supplier<T> operation) {
+        statistics.clear();
+        var result = operation.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+        return result;
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.sidd6p.store.services;
+
+import com.github.sidd6p.store.dtos.ProductDto;
+import com.github.sidd6p.store.entities.Category;
+import com.github.sidd6p.store.entities.Product;
+import com.github.sidd6p.store.repositories.CategoryRepository;
+import com.github.sidd6p.store.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pages through one category with every sort order of {@link ProductService#getProductSlice}, against the
+ * in-memory H2 database of the test profile. Most products share a price or a name with another one, so
+ * pages only line up if the seek queries break ties by id.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSlicePaginationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String categoryName;
+    private List<Product> products;
+
+    @BeforeEach
+    void createProducts() {
+        categoryName = "Cursor " + UUID.randomUUID();
+        products = new ArrayList<>();
+        String[][] rows = {{"Beta", "5.00"}, {"Alpha", "5.00"}, {"Beta", "5.00"}, {"Gamma", "1.00"},
+                {"Beta", "7.00"}, {"Alpha", "5.00"}, {"Delta", "7.00"}};
+        transactionTemplate.executeWithoutResult(status -> {
+            var category = categoryRepository.save(new Category(categoryName));
+            for (var row : rows) {
+                products.add(productRepository.save(Product.builder()
+                        .name(row[0]).price(new BigDecimal(row[1])).category(category).build()));
+            }
+        });
+    }
+
+    @Test
+    void idPagesFollowIdOrder() {
+        assertThat(readAllPages("id", 2)).containsExactlyElementsOf(idsSortedBy(Comparator.comparing(Product::getId)));
+    }
+
+    @Test
+    void pricePagesBreakTiesById() {
+        assertThat(readAllPages("price", 2)).containsExactlyElementsOf(idsSortedBy(
+                Comparator.comparing(Product::getPrice).thenComparing(Product::getId)));
+    }
+
+    @Test
+    void namePagesBreakTiesById() {
+        assertThat(readAllPages("name", 3)).containsExactlyElementsOf(idsSortedBy(
+                Comparator.comparing(Product::getName).thenComparing(Product::getId)));
+    }
+
+    @Test
+    void priceRangeBeyondTheIndexIsRejected() {
+        var tooHigh = new BigDecimal("1e30");
+        assertThatThrownBy(() -> productService.getProductsByPriceRange(BigDecimal.ZERO, tooHigh, categoryName, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.getProductsByPriceRange(tooHigh, tooHigh, categoryName, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Integer> readAllPages(String sort, int limit) {
+        var ids = new ArrayList<Integer>();
+        String after = null;
+        do {
+            var page = productService.getProductSlice(categoryName, after, limit, sort);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(limit);
+            page.getContent().stream().map(ProductDto::getId).forEach(ids::add);
+            after = page.getNextCursor();
+            assertThat(after == null).isEqualTo(!page.isHasNext());
+        } while (after != null);
+        return ids;
+    }
+
+    private List<Integer> idsSortedBy(Comparator<Product> order) {
+        return products.stream().sorted(order).map(Product::getId).toList();
+    }
+}